@@ -0,0 +1,128 @@
+package com.orchids.repository;
+
+import com.mongodb.DBRef;
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cost of decoding one catalog read with and without OrchidRepository.SUMMARY_FIELDS, the bytes on the wire are
+// printed once per fork. Run with -prof gc for allocations per read.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrchidProjectionBenchmark {
+    private static final int CATEGORY_ORCHIDS = 200;
+    private static final int ORDER_DETAILS = 100;
+
+    private final DocumentCodec codec = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+
+    private byte[] fullBytes;
+    private byte[] projectedBytes;
+
+    @Setup
+    public void setUp() {
+        Document full = storedOrchid();
+        fullBytes = encode(full);
+        projectedBytes = encode(project(full, Document.parse(OrchidRepository.SUMMARY_FIELDS)));
+        // Every DBRef left in the full document is one more round trip when Spring Data resolves it
+        System.out.printf("%nfull: %d bytes, %d DBRef lookups; projected: %d bytes, 0 DBRef lookups%n",
+                fullBytes.length, CATEGORY_ORCHIDS + ORDER_DETAILS, projectedBytes.length);
+    }
+
+    @Benchmark
+    public Document fullDocument() {
+        return decode(fullBytes);
+    }
+
+    @Benchmark
+    public Document summaryProjection() {
+        return decode(projectedBytes);
+    }
+
+    // Same shape MappingMongoConverter writes for an Orchid with an embedded Category and order history
+    private static Document storedOrchid() {
+        ObjectId orchidId = new ObjectId();
+        List<DBRef> categoryOrchids = new ArrayList<>();
+        for (int i = 0; i < CATEGORY_ORCHIDS; i++) {
+            categoryOrchids.add(new DBRef("orchids", new ObjectId()));
+        }
+        List<Document> orderDetails = new ArrayList<>();
+        for (int i = 0; i < ORDER_DETAILS; i++) {
+            orderDetails.add(new Document("_id", new ObjectId())
+                    .append("orderId", new ObjectId().toHexString())
+                    .append("orchid", new DBRef("orchids", orchidId))
+                    .append("price", "125.50")
+                    .append("quantity", 2));
+        }
+        return new Document("_id", orchidId)
+                .append("isNatural", true)
+                .append("orchidDescription", "A fragrant white moth orchid that blooms for up to three months.")
+                .append("orchidName", "Phalaenopsis Amabilis")
+                .append("orchidUrl", "http://localhost:9000/orchid-bucket/" + new ObjectId() + "-phalaenopsis.jpg")
+                .append("price", "125.50")
+                .append("status", "ACTIVE")
+                .append("category", new Document("_id", new ObjectId())
+                        .append("categoryName", "Phalaenopsis")
+                        .append("status", "ACTIVE")
+                        .append("orchids", categoryOrchids))
+                .append("orderDetails", orderDetails)
+                .append("_class", "com.orchids.pojo.Orchid");
+    }
+
+    // Applies an inclusion projection the way the server does, including dotted paths
+    private static Document project(Document source, Document fields) {
+        Document result = new Document("_id", source.get("_id"));
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            String[] path = field.getKey().split("\\.", 2);
+            Object value = source.get(path[0]);
+            if (value == null) {
+                continue;
+            }
+            if (path.length == 1) {
+                result.put(path[0], value);
+            } else {
+                Document nested = (Document) result.computeIfAbsent(path[0], key -> new Document());
+                nested.putAll(project((Document) value, new Document(path[1], 1)));
+                if (!"_id".equals(path[1])) {
+                    nested.remove("_id");
+                }
+            }
+        }
+        return result;
+    }
+
+    private byte[] encode(Document document) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        codec.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+
+    private Document decode(byte[] bytes) {
+        return codec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+    }
+}
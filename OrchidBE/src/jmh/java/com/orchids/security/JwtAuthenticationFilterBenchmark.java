@@ -0,0 +1,97 @@
+package com.orchids.security;
+
+import com.orchids.config.JwtCacheProperties;
+import com.orchids.pojo.Account;
+import com.orchids.pojo.Role;
+import com.orchids.repository.AccountRepository;
+import com.orchids.repository.RoleRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+// Cost of authenticating one request: the filter's single parse, a cached token, and the previous parse-twice path.
+// Run with -prof gc for allocations per request.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    // Same key JwtUtil signs with
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(
+            "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970".getBytes(StandardCharsets.UTF_8));
+
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter cachingFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(mock(AccountRepository.class), mock(RoleRepository.class));
+        filter = new JwtAuthenticationFilter(jwtUtil, tokenCache(false));
+        cachingFilter = new JwtAuthenticationFilter(jwtUtil, tokenCache(true));
+        Role role = new Role();
+        role.setRoleName("ROLE_ADMIN");
+        Account account = new Account();
+        account.setAccountName("admin");
+        account.setRole(role);
+        token = jwtUtil.generateToken(account);
+        request = new MockHttpServletRequest("GET", "/api/orchids");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        return authenticate(filter);
+    }
+
+    @Benchmark
+    public Authentication filterCachedToken() throws Exception {
+        return authenticate(cachingFilter);
+    }
+
+    // What JwtAuthenticationFilter did before: a fresh parser for the subject, then another to validate
+    @Benchmark
+    public Claims parseTwice() {
+        String username = Jwts.parserBuilder().setSigningKey(KEY).build().parseClaimsJws(token).getBody().getSubject();
+        Claims claims = Jwts.parserBuilder().setSigningKey(KEY).build().parseClaimsJws(token).getBody();
+        return username.equals(claims.getSubject()) ? claims : null;
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, (req, res) -> { });
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static VerifiedTokenCache tokenCache(boolean enabled) {
+        JwtCacheProperties properties = new JwtCacheProperties();
+        properties.setEnabled(enabled);
+        return new VerifiedTokenCache(properties, mock(RevokedTokenStore.class), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,27 @@
+package com.orchids.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class AccountConfig {
+
+    // Saves registered accounts once their password is hashed, so a slow Mongo write never holds a BCrypt thread.
+    // Work only arrives as fast as the bounded hashing pool finishes it, which keeps this queue short.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService accountWriteExecutor(PasswordHashingProperties properties) {
+        int threads = Math.max(1, properties.getWriteThreads());
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "account-write-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.orchids.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ORCHID = "orchid";
+    public static final String ORCHIDS = "orchids";
+    public static final String ORCHIDS_BY_CATEGORY = "orchidsByCategory";
+    public static final String CATEGORY = "category";
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_COUNTS = "categoryCounts";
+    public static final String ORDER_COUNTS = "orderCounts";
+
+    // Key used by the caches that hold a single whole-collection entry
+    public static final String ALL = "ALL";
+
+    @Bean
+    public CacheManager cacheManager(CatalogCacheProperties properties, OrderListingProperties orderListing) {
+        // Cache names are fixed up front so the actuator binds their metrics at startup
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                ORCHID, ORCHIDS, ORCHIDS_BY_CATEGORY, CATEGORY, CATEGORIES, CATEGORY_COUNTS) {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                // Catalog responses carry the CatalogVersion ETag, so their caches must not be refilled stale
+                if (ORDER_COUNTS.equals(name)) {
+                    return super.adaptCaffeineCache(name, cache);
+                }
+                return new CatalogCache(name, cache, isAllowNullValues());
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        // Order totals are estimates that go stale with every checkout, so they get their own short TTL
+        cacheManager.registerCustomCache(ORDER_COUNTS, Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(orderListing.getCountTtl())
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
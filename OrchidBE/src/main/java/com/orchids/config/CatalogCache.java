@@ -0,0 +1,65 @@
+package com.orchids.config;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Catalog cache that never keeps a value loaded across an eviction. A read that started before a catalog write
+// could otherwise put the old value back after the write evicted it, and serve it under the new ETag.
+// Fills must go through get(key, loader), i.e. @Cacheable(sync = true), or putIfNotEvictedSince.
+public class CatalogCache extends CaffeineCache {
+    private final AtomicLong evictions = new AtomicLong();
+
+    CatalogCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    // Taken before loading a value that will be stored with putIfNotEvictedSince
+    public long evictions() {
+        return evictions.get();
+    }
+
+    // Stored first and dropped again if an eviction ran since the stamp, an eviction that runs after the check
+    // removes the value itself
+    public void putIfNotEvictedSince(Object key, Object value, long stamp) {
+        super.put(key, value);
+        if (evictions.get() != stamp) {
+            super.evict(key);
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long stamp = evictions.get();
+        T value = super.get(key, valueLoader);
+        if (evictions.get() != stamp) {
+            super.evict(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.incrementAndGet();
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        evictions.incrementAndGet();
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        evictions.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        evictions.incrementAndGet();
+        return super.invalidate();
+    }
+}
@@ -0,0 +1,17 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "catalog.cache")
+public class CatalogCacheProperties {
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,35 @@
+package com.orchids.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class CatalogImportConfig {
+
+    // Shared by every import so concurrent imports together stay within upload-concurrency connections to MinIO.
+    // When the queue is full the importing request uploads the image itself, which slows it down instead of
+    // queueing without bound.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService orchidImageUploadExecutor(CatalogImportProperties properties) {
+        int threads = Math.max(1, properties.getUploadConcurrency());
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getUploadQueueCapacity())), runnable -> {
+                    Thread thread = new Thread(runnable, "orchid-image-upload-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, pool) -> {
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Image upload pool is shut down");
+                    }
+                    runnable.run();
+                });
+    }
+}
@@ -0,0 +1,23 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "catalog.import")
+public class CatalogImportProperties {
+    // Orchids per unordered bulk insert
+    private int batchSize = 500;
+    // Parallel image uploads to MinIO, shared by all imports running at the same time
+    private int uploadConcurrency = 8;
+    // Uploads waiting for a thread, beyond it the importing request uploads itself
+    private int uploadQueueCapacity = 256;
+    // Upper bound for the unzipped images archive, it is held in memory during the import.
+    // spring.servlet.multipart limits must allow an upload of this size or it is rejected before the import runs.
+    private DataSize maxArchiveSize = DataSize.ofMegabytes(100);
+}
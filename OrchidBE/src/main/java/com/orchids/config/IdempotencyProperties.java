@@ -0,0 +1,23 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "orders.idempotency")
+public class IdempotencyProperties {
+    // memory for a single node, mongo to share keys between nodes
+    private String store = "memory";
+    // How long a completed response is replayed for the same key
+    private Duration ttl = Duration.ofHours(24);
+    // Upper bound of keys held by the in-memory store
+    private long maximumSize = 10_000;
+    // How long a duplicate waits for the original request, and after which an unfinished claim is considered abandoned
+    private Duration inFlightTimeout = Duration.ofSeconds(30);
+}
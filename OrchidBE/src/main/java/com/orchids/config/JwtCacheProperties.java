@@ -0,0 +1,21 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "jwt.cache")
+public class JwtCacheProperties {
+    // Reuse verified claims for repeated tokens instead of checking the signature on every request
+    private boolean enabled = true;
+    // Distinct tokens kept, least recently used are evicted first
+    private long maximumSize = 10_000;
+    // How often revocations made on other nodes are picked up
+    private Duration revocationSyncInterval = Duration.ofSeconds(10);
+}
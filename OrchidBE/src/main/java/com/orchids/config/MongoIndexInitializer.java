@@ -0,0 +1,189 @@
+package com.orchids.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Creates the indexes the repository queries rely on, then checks that none of them still plans a COLLSCAN
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MongoIndexInitializer implements CommandLineRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        createIndex("orchids", new Index()
+                .on("status", Sort.Direction.ASC)
+                .on("category._id", Sort.Direction.ASC)
+                .named("status_category_idx"));
+        createIndex("orchids", new Index()
+                .on("status", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("status_id_idx"));
+        // Superseded by account_orderDate_id_idx, which also covers the keyset tie-break on _id
+        dropIndex("orders", "account_orderDate_idx");
+        createIndex("orders", new Index()
+                .on("account._id", Sort.Direction.ASC)
+                .on("orderDate", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("account_orderDate_id_idx"));
+        // Admin listing: unfiltered or status-filtered, newest or oldest first
+        createIndex("orders", new Index()
+                .on("orderDate", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("orderDate_id_idx"));
+        createIndex("orders", new Index()
+                .on("orderStatus", Sort.Direction.ASC)
+                .on("orderDate", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("orderStatus_orderDate_id_idx"));
+        // Order history of archived orders, the archival scan on orders uses orderDate_id_idx
+        createIndex("orders_archive", new Index()
+                .on("account._id", Sort.Direction.ASC)
+                .on("orderDate", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("account_orderDate_id_idx"));
+        createIndex("sales_rollups", new Index()
+                .on("granularity", Sort.Direction.ASC)
+                .on("dimension", Sort.Direction.ASC)
+                .on("bucket", Sort.Direction.ASC)
+                .named("granularity_dimension_bucket_idx"));
+        createIndex("sales_rollups", new Index()
+                .on("granularity", Sort.Direction.ASC)
+                .on("dimension", Sort.Direction.ASC)
+                .on("key", Sort.Direction.ASC)
+                .on("bucket", Sort.Direction.ASC)
+                .named("granularity_dimension_key_bucket_idx"));
+        createIndex("accounts", new Index()
+                .on("accountName", Sort.Direction.ASC)
+                .unique()
+                .partial(PartialIndexFilter.of(Criteria.where("accountName").type(2)))
+                .named("accountName_unique_idx"));
+        createIndex("order_details", new Index()
+                .on("orderId", Sort.Direction.ASC)
+                .named("orderId_idx"));
+        createIndex("roles", new Index()
+                .on("roleName", Sort.Direction.ASC)
+                .named("roleName_idx"));
+
+        for (QueryProbe probe : probes()) {
+            reportCollectionScan(probe);
+        }
+    }
+
+    private void dropIndex(String collection, String name) {
+        IndexOperations indexOps = mongoTemplate.indexOps(collection);
+        try {
+            if (indexOps.getIndexInfo().stream().anyMatch(info -> info.getName().equals(name))) {
+                indexOps.dropIndex(name);
+                log.info("Dropped obsolete index {} on {}", name, collection);
+            }
+        } catch (DataAccessException e) {
+            log.error("Could not drop index {} on {}: {}", name, collection, e.getMessage());
+        }
+    }
+
+    private void createIndex(String collection, Index index) {
+        IndexOperations indexOps = mongoTemplate.indexOps(collection);
+        String name = (String) index.getIndexOptions().get("name");
+        try {
+            indexOps.createIndex(index);
+        } catch (DataAccessException e) {
+            // e.g. duplicate account names prevent the unique index, keep starting but make it visible
+            log.error("Could not create index {} on {}: {}", name, collection, e.getMessage());
+            return;
+        }
+        Set<String> existing = indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+        if (existing.contains(name)) {
+            log.info("Index {} on {} verified", name, collection);
+        } else {
+            log.warn("Index {} on {} is missing after creation", name, collection);
+        }
+    }
+
+    // One probe per repository query, shaped like the filter and sort Spring Data sends
+    private List<QueryProbe> probes() {
+        ObjectId sampleId = new ObjectId();
+        return List.of(
+                new QueryProbe("orchids", "OrchidRepository.findSummariesByStatus",
+                        new Document("status", "ACTIVE"), null),
+                new QueryProbe("orchids", "OrchidRepository.findSummariesByStatusAndCategoryId",
+                        new Document("status", "ACTIVE").append("category._id", sampleId), null),
+                new QueryProbe("orchids", "OrchidRepository.findSummaryPageAfter",
+                        new Document("status", "ACTIVE").append("_id", new Document("$gt", sampleId)),
+                        new Document("_id", 1)),
+                new QueryProbe("orders", "OrderRepository.findByAccountAccountIdOrderByOrderDateDescOrderIdDesc",
+                        new Document("account._id", sampleId), new Document("orderDate", -1).append("_id", -1)),
+                new QueryProbe("orders", "OrderRepository.findPage by account",
+                        new Document("account._id", sampleId).append("orderStatus", "NEW"),
+                        new Document("orderDate", -1).append("_id", -1)),
+                new QueryProbe("orders", "OrderRepository.findPage by date range",
+                        new Document("orderDate", new Document("$gte", new Date())),
+                        new Document("orderDate", 1).append("_id", 1)),
+                new QueryProbe("orders", "OrderRepository.findPage by status",
+                        new Document("orderStatus", "NEW"), new Document("orderDate", -1).append("_id", -1)),
+                new QueryProbe("sales_rollups", "SalesRollupRepository.findRange",
+                        new Document("granularity", "DAY").append("dimension", "TOTAL")
+                                .append("bucket", new Document("$gte", "2000-01-01").append("$lt", "2000-02-01")),
+                        new Document("bucket", 1).append("key", 1)),
+                new QueryProbe("sales_rollups", "SalesRollupRepository.findRangeForKey",
+                        new Document("granularity", "DAY").append("dimension", "ORCHID").append("key", sampleId.toHexString())
+                                .append("bucket", new Document("$gte", "2000-01-01").append("$lt", "2000-02-01")),
+                        new Document("bucket", 1)),
+                new QueryProbe("accounts", "AccountRepository.findByAccountName",
+                        new Document("accountName", "probe"), null),
+                new QueryProbe("order_details", "OrderDetailRepostiory.findByOrderId",
+                        new Document("orderId", sampleId.toHexString()), null),
+                new QueryProbe("roles", "RoleRepository.findByRoleName",
+                        new Document("roleName", "ROLE_USER"), null)
+        );
+    }
+
+    private void reportCollectionScan(QueryProbe probe) {
+        Document find = new Document("find", probe.collection()).append("filter", probe.filter());
+        if (probe.sort() != null) {
+            find.append("sort", probe.sort());
+        }
+        try {
+            Document explain = mongoTemplate.getDb().runCommand(
+                    new Document("explain", find).append("verbosity", "queryPlanner"));
+            Document queryPlanner = explain.get("queryPlanner", Document.class);
+            String winningPlan = queryPlanner != null && queryPlanner.get("winningPlan") != null
+                    ? queryPlanner.get("winningPlan", Document.class).toJson()
+                    : "";
+            if (winningPlan.contains("COLLSCAN")) {
+                log.warn("Query {} on {} still plans a COLLSCAN: {}", probe.name(), probe.collection(), winningPlan);
+            } else {
+                log.debug("Query {} on {} uses an index", probe.name(), probe.collection());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not explain query {} on {}: {}", probe.name(), probe.collection(), e.getMessage());
+        }
+    }
+
+    private record QueryProbe(String collection, String name, Document filter, Document sort) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "migrations.order-account-ref")
+public class OrderAccountMigrationProperties {
+    // Start automatically once the application is ready
+    private boolean enabled = true;
+    // Orders read and rewritten per round trip
+    private int batchSize = 500;
+    // Pause between batches so the migration does not compete with live traffic
+    private Duration pause = Duration.ofMillis(50);
+    // Orders read before and after the migration to compare read latency
+    private int sampleSize = 1_000;
+}
@@ -0,0 +1,22 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "orders.archive")
+public class OrderArchiveProperties {
+    private boolean enabled = true;
+    // Orders with an orderDate older than this move to orders_archive
+    private Duration after = Duration.ofDays(365);
+    // Orders moved per round trip
+    private int batchSize = 500;
+    // Sleep between batches so a large backlog does not saturate the database
+    private Duration pause = Duration.ofMillis(100);
+}
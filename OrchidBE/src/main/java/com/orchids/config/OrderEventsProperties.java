@@ -0,0 +1,27 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "orders.events")
+public class OrderEventsProperties {
+    // Watch the orders collection; needs a replica set, otherwise events come from this instance only
+    private boolean changeStream = true;
+    // Events waiting for one client, a client that falls this far behind is disconnected
+    private int bufferSize = 64;
+    // Open event streams across all clients
+    private int maxSubscribers = 1000;
+    // Comment line sent to idle streams so proxies keep them open and dead clients are noticed
+    private Duration heartbeat = Duration.ofSeconds(15);
+    // A client whose send blocks longer than this gets no further events, checked at each heartbeat
+    private Duration sendTimeout = Duration.ofSeconds(10);
+    // Streams are closed after this long, EventSource reconnects on its own
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,27 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "orders.intake")
+public class OrderIntakeProperties {
+    // Orders accepted but not yet written, submissions beyond it are rejected with 503
+    private int queueCapacity = 10_000;
+    // Most orders written by one bulk insert
+    private int batchSize = 500;
+    // Longest an accepted order waits for its batch to fill up
+    private Duration flushInterval = Duration.ofMillis(20);
+    // How long the status of an accepted order can be polled
+    private Duration statusTtl = Duration.ofHours(1);
+    // Most written or failed orders whose status is kept, queued orders are always kept
+    private long statusMaximumSize = 100_000;
+    // Longest a status poll may wait for the order to be written
+    private Duration maxWait = Duration.ofSeconds(30);
+}
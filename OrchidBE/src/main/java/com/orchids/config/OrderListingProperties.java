@@ -0,0 +1,19 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "orders.listing")
+public class OrderListingProperties {
+    // How long a total for the admin listing is reused before it is counted again
+    private Duration countTtl = Duration.ofSeconds(30);
+    // Deepest row reachable with page/limit, the cursor has no limit
+    private int maxOffset = 10_000;
+}
@@ -0,0 +1,19 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "security.password-hashing")
+public class PasswordHashingProperties {
+    // BCrypt is CPU bound, more threads than cores only adds context switches
+    private int threads = Runtime.getRuntime().availableProcessors();
+    // Logins and registrations waiting for a hashing thread, beyond it they are rejected with 503
+    private int queueCapacity = 64;
+    // Threads that save registered accounts after hashing, Mongo writes mostly wait on I/O
+    private int writeThreads = 4;
+}
@@ -2,9 +2,11 @@ package com.orchids.config;
 
 
 import com.orchids.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -30,8 +32,15 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed and deferred responses finish in an ASYNC dispatch the JWT filter does not run
+                        // for, the request was already authorized when it started
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/accounts/login", "api/accounts/register", "api/accounts/register/admin").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                        // Method security is not enabled, @PreAuthorize on the services does not gate these
+                        .requestMatchers("/api/admin/**", "/api/analytics/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/orchids/import").hasRole("ADMIN")
+                        .requestMatchers("/api/orchids/*/stock").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
@@ -0,0 +1,21 @@
+package com.orchids.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "orders.stock")
+public class StockProperties {
+    // Slots per orchid counter, more slots mean less contention on a hot orchid
+    private int stripes = Runtime.getRuntime().availableProcessors();
+    // Stock held for an order that is never written is returned after this long
+    private Duration reservationTtl = Duration.ofMinutes(5);
+    // How often sold units are written back to orchid_stock
+    private Duration flushInterval = Duration.ofSeconds(1);
+}
@@ -6,11 +6,15 @@ import com.orchids.dto.AuthResponse;
 import com.orchids.dto.LoginRequest;
 import com.orchids.pojo.Account;
 import com.orchids.security.JwtUtil;
+import com.orchids.security.PasswordHashingBusyException;
+import com.orchids.security.VerifiedTokenCache;
 import com.orchids.service.AccountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +22,8 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 @RestController
@@ -30,29 +36,44 @@ public class AccountController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
     @PostMapping(value = "/login", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
+        // The request thread is released while the password is checked on the hashing pool
+        CompletableFuture<ResponseEntity<?>> result;
         try {
-            Account account = accountService.validateLogin(
-                    loginRequest.getUsername(),
-                    loginRequest.getPassword()
-            );
-
-            if (account == null) {
-                Map<String, String> response = new HashMap<>();
-                response.put("error", "Invalid credentials");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            String token = jwtUtil.generateToken(loginRequest.getUsername());
-            return ResponseEntity.ok(new AuthResponse(token));
+            result = accountService.validateLogin(loginRequest.getUsername(), loginRequest.getPassword())
+                    .<ResponseEntity<?>>thenApply(account -> {
+                        if (account == null) {
+                            Map<String, String> response = new HashMap<>();
+                            response.put("error", "Invalid credentials");
+                            return ResponseEntity.badRequest().body(response);
+                        }
+                        // The account is already loaded, no second lookup to issue the token
+                        return ResponseEntity.ok(new AuthResponse(jwtUtil.generateToken(account)));
+                    });
         } catch (Exception e) {
-            Map<String, String> response = new HashMap<>();
-            response.put("error", e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
+            result = CompletableFuture.failedFuture(e);
         }
+        return result.exceptionally(e -> error(e, HttpStatus.INTERNAL_SERVER_ERROR));
     }
 
+    @PostMapping("/logout")
+    @Operation(
+            summary = "Revoke the bearer token of this request",
+            description = "The token is rejected on this node at once and on every other node within "
+                    + "jwt.cache.revocation-sync-interval. The revocation survives restarts until the token expires.",
+            security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "204", description = "Token revoked")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        String token = authorization.substring("Bearer ".length());
+        tokenCache.revoke(token, jwtUtil.parseClaims(token).getExpiration());
+        return ResponseEntity.noContent().build();
+    }
 
     @GetMapping
     @Operation(
@@ -67,25 +88,38 @@ public class AccountController {
     }
 
     @PostMapping(value = "/register", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> register(@RequestBody AccountRequest account) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody AccountRequest account) {
+        CompletableFuture<AccountResponse> created;
         try {
-            AccountResponse created = accountService.registerAccount(account);
-            return ResponseEntity.ok(created);
+            created = accountService.registerAccount(account);
         } catch (Exception e) {
-            Map<String, String> response = new HashMap<>();
-            response.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(response);
+            created = CompletableFuture.failedFuture(e);
         }
+        return created.<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> error(e, HttpStatus.BAD_REQUEST));
     }
     @PostMapping(value = "/register/admin", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> registerAdmin(@RequestBody AccountRequest account) {
+    public CompletableFuture<ResponseEntity<?>> registerAdmin(@RequestBody AccountRequest account) {
+        CompletableFuture<AccountResponse> created;
         try {
-            AccountResponse created = accountService.registerAccountAdmin(account);
-            return ResponseEntity.ok(created);
+            created = accountService.registerAccountAdmin(account);
         } catch (Exception e) {
-            Map<String, String> response = new HashMap<>();
-            response.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(response);
+            created = CompletableFuture.failedFuture(e);
+        }
+        return created.<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> error(e, HttpStatus.BAD_REQUEST));
+    }
+
+    // A saturated hashing pool is a 503 the client can retry, anything else keeps the endpoint's usual status
+    private ResponseEntity<?> error(Throwable e, HttpStatus status) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        Map<String, String> response = new HashMap<>();
+        response.put("error", cause.getMessage());
+        if (cause instanceof PasswordHashingBusyException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response);
         }
+        return ResponseEntity.status(status).body(response);
     }
 }
\ No newline at end of file
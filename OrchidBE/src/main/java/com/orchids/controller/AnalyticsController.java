@@ -0,0 +1,94 @@
+package com.orchids.controller;
+
+import com.orchids.dto.SalesRollupResponse;
+import com.orchids.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "/api/analytics", produces = MediaType.APPLICATION_JSON_VALUE)
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @Operation(
+        summary = "Revenue per time bucket",
+        description = "Reads the pre-aggregated rollups for the days [from, to]. granularity is DAY or HOUR, dimension is "
+                + "TOTAL, CATEGORY or ORCHID, key narrows CATEGORY or ORCHID to one category or orchid id.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved revenue")
+    @ApiResponse(responseCode = "400", description = "Invalid granularity or dimension")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping("/revenue")
+    public ResponseEntity<?> getRevenue(
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam(defaultValue = "TOTAL") String dimension,
+            @RequestParam(required = false) String key,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            List<SalesRollupResponse> revenue = analyticsService.getRevenue(granularity, dimension, key, from, to);
+            return ResponseEntity.ok(revenue);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    @Operation(
+        summary = "Best selling categories or orchids",
+        description = "Sums the daily rollups for the days [from, to] and ranks them by revenue.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved top sellers")
+    @ApiResponse(responseCode = "400", description = "Invalid dimension")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping("/top")
+    public ResponseEntity<?> getTopSellers(
+            @RequestParam(defaultValue = "ORCHID") String dimension,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<SalesRollupResponse> top = analyticsService.getTopSellers(dimension, from, to, limit);
+            return ResponseEntity.ok(top);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    @Operation(
+        summary = "Rebuild all rollups from the orders collection",
+        description = "For the initial backfill of existing orders. Orders written while it runs may be missed.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Rollups rebuilt")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        long orders = analyticsService.rebuildRollups();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Sales rollups rebuilt");
+        response.put("orders", orders);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+}
@@ -0,0 +1,44 @@
+package com.orchids.controller;
+
+import com.orchids.service.CatalogVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// Conditional GET support for catalog endpoints
+@Component
+@RequiredArgsConstructor
+public class CatalogResponses {
+    // Clients may keep the body but must revalidate, responses are per user so shared caches must not store them
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final CatalogVersion catalogVersion;
+
+    // The version is read before the body is built. It only moves once a write's cache entries are evicted and
+    // CatalogCache keeps loads that raced an eviction out of the cache, so the body is never older than its ETag.
+    // A write landing meanwhile can still make the body newer, the client then just gets it again on revalidation.
+    public <T> ResponseEntity<T> conditional(WebRequest request, Supplier<ResponseEntity<T>> response) {
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            // Answered without touching Mongo or Jackson
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
+        }
+        ResponseEntity<T> entity = response.get();
+        if (!entity.getStatusCode().is2xxSuccessful()) {
+            return entity;
+        }
+        return ResponseEntity.status(entity.getStatusCode())
+                .headers(entity.getHeaders())
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .body(entity.getBody());
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -23,17 +24,23 @@ import java.util.Map;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogResponses catalogResponses;
 
     @Operation(
         summary = "Get all categories",
+        description = "Pass withCounts=true to include the number of ACTIVE orchids in each category.",
         security = { @SecurityRequirement(name = "bearerAuth") }
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved categories")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match")
     @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        List<CategoryResponse> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(
+            @RequestParam(defaultValue = "false") boolean withCounts,
+            WebRequest webRequest) {
+        return catalogResponses.conditional(webRequest, () -> ResponseEntity.ok(withCounts
+                ? categoryService.getAllCategoriesWithCounts()
+                : categoryService.getAllCategories()));
     }
 
     @Operation(
@@ -41,16 +48,19 @@ public class CategoryController {
         security = { @SecurityRequirement(name = "bearerAuth") }
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved category")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match")
     @ApiResponse(responseCode = "404", description = "Category not found")
     @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable String id) {
-        CategoryResponse category = categoryService.getCategoryById(id);
-        if (category != null) {
-            return ResponseEntity.ok(category);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable String id, WebRequest webRequest) {
+        return catalogResponses.conditional(webRequest, () -> {
+            CategoryResponse category = categoryService.getCategoryById(id);
+            if (category != null) {
+                return ResponseEntity.ok(category);
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        });
     }
 
     @Operation(
@@ -0,0 +1,91 @@
+package com.orchids.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchids.service.AccountService;
+import com.orchids.service.OrchidService;
+import com.orchids.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "/api/admin/export", produces = ExportController.NDJSON_VALUE)
+@CrossOrigin(origins = "*")
+public class ExportController {
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final OrchidService orchidService;
+    private final OrderService orderService;
+    private final AccountService accountService;
+    private final ObjectMapper objectMapper;
+
+    @Operation(
+        summary = "Export active orchids as NDJSON",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "One orchid per line")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping("/orchids")
+    public ResponseEntity<StreamingResponseBody> exportOrchids(@RequestParam(defaultValue = "false") boolean gzip) {
+        return export(gzip, orchidService::streamAllOrchids);
+    }
+
+    @Operation(
+        summary = "Export all orders as NDJSON",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "One order per line")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping("/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "false") boolean gzip) {
+        return export(gzip, orderService::streamAllOrders);
+    }
+
+    @Operation(
+        summary = "Export all accounts as NDJSON",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "One account per line, without password hashes")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping("/accounts")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(@RequestParam(defaultValue = "false") boolean gzip) {
+        return export(gzip, accountService::streamAllAccounts);
+    }
+
+    // Each record is serialized and written as soon as the Mongo cursor yields it, nothing is buffered per export
+    private <T> ResponseEntity<StreamingResponseBody> export(boolean gzip, Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+                source.accept(item -> {
+                    try {
+                        generator.writeObject(item);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,54 @@
+package com.orchids.controller;
+
+import com.orchids.service.migration.OrderAccountRefMigration;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "/api/admin/migrations", produces = MediaType.APPLICATION_JSON_VALUE)
+@CrossOrigin(origins = "*")
+public class MigrationController {
+
+    private final OrderAccountRefMigration orderAccountRefMigration;
+
+    @Operation(
+        summary = "Progress of the order account migration",
+        description = "Checkpoint with orders scanned and migrated, total BSON bytes before and after, "
+                + "and the sample read time before and after.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Current checkpoint")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping("/order-account-ref")
+    public ResponseEntity<Map<String, Object>> getOrderAccountMigration() {
+        return ResponseEntity.ok(orderAccountRefMigration.status());
+    }
+
+    @Operation(
+        summary = "Start or resume the order account migration",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "202", description = "Migration started in the background")
+    @ApiResponse(responseCode = "409", description = "Migration already running")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @PostMapping("/order-account-ref")
+    public ResponseEntity<Map<String, String>> startOrderAccountMigration() {
+        Map<String, String> response = new HashMap<>();
+        if (!orderAccountRefMigration.start()) {
+            response.put("error", "Migration already running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        response.put("message", "Migration started");
+        return ResponseEntity.accepted().body(response);
+    }
+}
@@ -1,8 +1,19 @@
 package com.orchids.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchids.dto.CursorPage;
+import com.orchids.dto.OrchidFacetResponse;
+import com.orchids.dto.OrchidImportReport;
 import com.orchids.dto.OrchidRequest;
 import com.orchids.dto.OrchidResponse;
+import com.orchids.dto.StockRequest;
+import com.orchids.dto.StockResponse;
+import com.orchids.service.OrchidImportService;
 import com.orchids.service.OrchidService;
+import com.orchids.service.facet.OrchidFacetService;
+import com.orchids.service.search.OrchidSearchService;
+import com.orchids.service.stock.StockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -11,7 +22,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,34 +39,132 @@ import java.util.Map;
 public class OrchidController {
 
     private final OrchidService orchidService;
+    private final OrchidSearchService orchidSearchService;
+    private final OrchidFacetService orchidFacetService;
+    private final OrchidImportService orchidImportService;
+    private final ObjectMapper objectMapper;
+    private final CatalogResponses catalogResponses;
+    private final StockService stockService;
 
     @Operation(
         summary = "Get all orchids",
+        description = "Returns the full list by default. Pass limit (and the returned next cursor) for keyset pagination.",
         security = { @SecurityRequirement(name = "bearerAuth") }
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved orchids")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
     @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     @GetMapping
-    public ResponseEntity<List<OrchidResponse>> getAllOrchids() {
+    public ResponseEntity<?> getAllOrchids(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
+        return catalogResponses.conditional(webRequest, () -> listOrchids(limit, cursor));
+    }
+
+    private ResponseEntity<Object> listOrchids(Integer limit, String cursor) {
+        if (limit != null || cursor != null) {
+            try {
+                CursorPage<OrchidResponse> page = orchidService.getOrchidsPage(cursor, limit != null ? limit : 20);
+                return ResponseEntity.ok(page);
+            } catch (IllegalArgumentException e) {
+                Map<String, String> response = new HashMap<>();
+                response.put("error", e.getMessage());
+                return ResponseEntity.badRequest().body(response);
+            }
+        }
         List<OrchidResponse> orchids = orchidService.getAllOrchids();
         return ResponseEntity.ok(orchids);
     }
 
+    @Operation(
+        summary = "Stream all orchids",
+        description = "Same JSON array as the default listing, written straight from the database cursor.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully streamed orchids")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllOrchids(WebRequest webRequest) {
+        return catalogResponses.conditional(webRequest, () -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(streamOrchids()));
+    }
+
+    // Writes each orchid as soon as it is read so memory stays flat regardless of catalog size
+    private StreamingResponseBody streamOrchids() {
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                orchidService.streamAllOrchids(orchid -> {
+                    try {
+                        generator.writeObject(orchid);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    @Operation(
+        summary = "Search orchids by name and description",
+        description = "Answered from an in-memory index, results are ranked by relevance. The last word also matches as a prefix.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully searched orchids")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping("/search")
+    public ResponseEntity<List<OrchidResponse>> searchOrchids(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        return catalogResponses.conditional(webRequest,
+                () -> ResponseEntity.ok(orchidSearchService.search(query, limit)));
+    }
+
+    @Operation(
+        summary = "Filter orchids by facets",
+        description = "Repeat a parameter to OR its values, different parameters are AND-ed. "
+                + "Price buckets use the labels returned in the price facet, e.g. 50-100 or 500+.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully filtered orchids")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping("/facets")
+    public ResponseEntity<OrchidFacetResponse> filterOrchids(
+            @RequestParam(required = false) List<Boolean> isNatural,
+            @RequestParam(required = false) List<String> categoryId,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        return catalogResponses.conditional(webRequest,
+                () -> ResponseEntity.ok(orchidFacetService.filter(isNatural, categoryId, price, limit)));
+    }
+
     @Operation(
         summary = "Get orchid by ID",
         security = { @SecurityRequirement(name = "bearerAuth") }
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved orchid")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match")
     @ApiResponse(responseCode = "404", description = "Orchid not found")
     @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     @GetMapping("/{id}")
-    public ResponseEntity<OrchidResponse> getOrchidById(@PathVariable String id) {
-        OrchidResponse orchid = orchidService.getOrchidById(id);
-        if (orchid != null) {
-            return ResponseEntity.ok(orchid);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<OrchidResponse> getOrchidById(@PathVariable String id, WebRequest webRequest) {
+        return catalogResponses.conditional(webRequest, () -> {
+            OrchidResponse orchid = orchidService.getOrchidById(id);
+            if (orchid != null) {
+                return ResponseEntity.ok(orchid);
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        });
     }
 
     @Operation(
@@ -58,11 +172,12 @@ public class OrchidController {
         security = { @SecurityRequirement(name = "bearerAuth") }
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved orchids by category")
+    @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match")
     @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<OrchidResponse>> getOrchidsByCategory(@PathVariable String categoryId) {
-        List<OrchidResponse> orchids = orchidService.getOrchidsByCategory(categoryId);
-        return ResponseEntity.ok(orchids);
+    public ResponseEntity<List<OrchidResponse>> getOrchidsByCategory(@PathVariable String categoryId, WebRequest webRequest) {
+        return catalogResponses.conditional(webRequest,
+                () -> ResponseEntity.ok(orchidService.getOrchidsByCategory(categoryId)));
     }
 
     @Operation(
@@ -78,6 +193,61 @@ public class OrchidController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @Operation(
+        summary = "Bulk import orchids",
+        description = "file is a CSV with a header row or NDJSON, with the columns orchidName, orchidDescription, price, "
+                + "isNatural, categoryId and image. image is an absolute URL or a file name inside the optional images zip.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Import finished, see the per-row report")
+    @ApiResponse(responseCode = "400", description = "Unreadable or unsupported file")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importOrchids(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "images", required = false) MultipartFile images) {
+        try {
+            OrchidImportReport report = orchidImportService.importOrchids(file, images);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @Operation(
+        summary = "Get stock of an orchid",
+        description = "tracked is false for orchids that were never stocked, they sell without limit.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved stock")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<StockResponse> getStock(@PathVariable String id) {
+        return ResponseEntity.ok(stockService.getStock(id));
+    }
+
+    @Operation(
+        summary = "Restock or write off units of an orchid",
+        description = "quantity is added to the stock, a negative quantity removes unreserved units. "
+                + "The first adjustment starts tracking stock for the orchid.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Stock adjusted")
+    @ApiResponse(responseCode = "400", description = "Not enough stock to remove")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @PostMapping(value = "/{id}/stock", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> adjustStock(@PathVariable String id, @RequestBody StockRequest request) {
+        try {
+            return ResponseEntity.ok(stockService.adjustStock(id, request.getQuantity()));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     @Operation(
             summary = "Update an existing orchid",
             security = { @SecurityRequirement(name = "bearerAuth") }
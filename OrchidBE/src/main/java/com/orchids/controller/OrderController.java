@@ -1,18 +1,46 @@
 package com.orchids.controller;
 
+import com.orchids.dto.OrderIntakeResponse;
 import com.orchids.dto.OrderItemRequest;
 import com.orchids.dto.OrderItemResponse;
+import com.orchids.repository.OrderFilter;
 import com.orchids.service.OrderService;
+import com.orchids.service.events.OrderEventBroadcaster;
+import com.orchids.service.idempotency.IdempotencyInProgressException;
+import com.orchids.service.idempotency.IdempotencyKeyReuseException;
+import com.orchids.service.idempotency.IdempotencyStore;
+import com.orchids.service.idempotency.StoredResponse;
+import com.orchids.service.intake.IntakeQueueFullException;
+import com.orchids.service.intake.OrderIntakeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchids.dto.CursorPage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -20,18 +48,53 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class OrderController {
 
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
 
     @Operation(
         summary = "Get all orders",
+        description = "Returns the newest 20 orders by default, the full list is at /api/admin/export/orders. Pass "
+                + "limit with page or the returned next cursor to paginate, filter by orderStatus, accountId and an "
+                + "orderDate range [from, to), sort by orderDate with direction=asc|desc, and withTotal=true for a "
+                + "cached total.",
         security = { @SecurityRequirement(name = "bearerAuth") }
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved orders")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page")
     @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     @GetMapping
-    public ResponseEntity<List<OrderItemResponse>> getAllOrders() {
-        List<OrderItemResponse> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getAllOrders(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String orderStatus,
+            @RequestParam(required = false) String accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) Boolean withTotal) {
+        OrderFilter filter = new OrderFilter();
+        filter.setOrderStatus(orderStatus);
+        filter.setAccountId(accountId);
+        filter.setFrom(from);
+        filter.setTo(to);
+        try {
+            CursorPage<OrderItemResponse> orders = orderService.getOrdersPage(
+                    filter, Sort.Direction.fromString(direction != null ? direction : "desc"), page, cursor,
+                    limit != null ? limit : 20, Boolean.TRUE.equals(withTotal));
+            return ResponseEntity.ok(orders);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     @Operation(
@@ -53,15 +116,159 @@ public class OrderController {
 
     @Operation(
         summary = "Create a new order",
+        description = "Send orderDetails with productId and quantity per line, or a single orchidId and quantity. "
+                + "Lines are charged at the current catalog price. With an Idempotency-Key header, retries of the same "
+                + "request return the first response (marked Idempotent-Replayed: true) instead of creating another order.",
         security = { @SecurityRequirement(name = "bearerAuth") }
     )
     @ApiResponse(responseCode = "201", description = "Order created successfully")
-    @ApiResponse(responseCode = "400", description = "Invalid input")
+    @ApiResponse(responseCode = "400", description = "Invalid input or an orchid that is not available")
     @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @ApiResponse(responseCode = "409", description = "The first request with this Idempotency-Key is still running")
+    @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request")
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<OrderItemResponse> createOrder(@RequestBody OrderItemRequest request) {
-        OrderItemResponse created = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    public ResponseEntity<?> createOrder(
+            @RequestBody OrderItemRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            Principal principal) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return create(request);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return error(HttpStatus.BAD_REQUEST, IDEMPOTENCY_KEY + " must not exceed " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        // Keys are scoped per user so two customers can never collide on the same key
+        String scopedKey = (principal != null ? principal.getName() : "") + ":" + idempotencyKey;
+        try {
+            StoredResponse response = idempotencyStore.execute(scopedKey, fingerprint(request),
+                    () -> toStoredResponse(create(request)));
+            return ResponseEntity.status(response.status())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(IDEMPOTENT_REPLAYED, String.valueOf(response.replayed()))
+                    .body(response.body());
+        } catch (IdempotencyKeyReuseException e) {
+            return error(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        } catch (IdempotencyInProgressException e) {
+            return error(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> create(OrderItemRequest request) {
+        try {
+            OrderItemResponse created = orderService.createOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    private StoredResponse toStoredResponse(ResponseEntity<?> response) {
+        try {
+            return new StoredResponse(response.getStatusCode().value(), objectMapper.writeValueAsString(response.getBody()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Same key with a different body is a client bug, not a retry
+    private String fingerprint(OrderItemRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", message);
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @Operation(
+        summary = "Submit an order for asynchronous creation",
+        description = "Validated and priced like POST /api/orders, then queued and written in a batch. Returns 202 "
+                + "with the order id; poll the Location URL, adding waitMs to hold the request until the order is written.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "202", description = "Order accepted")
+    @ApiResponse(responseCode = "400", description = "Invalid input or an orchid that is not available")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @ApiResponse(responseCode = "503", description = "Intake queue is full, retry after the Retry-After delay")
+    @PostMapping(value = "/async", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> submitOrder(@RequestBody OrderItemRequest request) {
+        try {
+            OrderIntakeResponse accepted = orderIntakeService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/async/" + accepted.getOrderId()))
+                    .body(accepted);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IntakeQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+        summary = "Get the status of an asynchronously submitted order",
+        description = "status is QUEUED, CREATED or FAILED. With waitMs the response is held until the order leaves "
+                + "the queue or the wait elapses.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Current status of the order")
+    @ApiResponse(responseCode = "404", description = "Order not found")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @GetMapping("/async/{id}")
+    public DeferredResult<ResponseEntity<OrderIntakeResponse>> getSubmittedOrder(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") long waitMs,
+            Authentication authentication) {
+        // Customers only see their own submissions, admins see all
+        DeferredResult<ResponseEntity<OrderIntakeResponse>> result = new DeferredResult<>();
+        String accountName = isAdmin(authentication) ? null : authentication.getName();
+        orderIntakeService.status(id, accountName, Duration.ofMillis(waitMs))
+                .ifPresentOrElse(
+                        status -> status.thenAccept(response -> result.setResult(ResponseEntity.ok(response))),
+                        () -> result.setResult(ResponseEntity.notFound().build()));
+        return result;
+    }
+
+    @Operation(
+        summary = "Stream order status changes",
+        description = "Server-Sent Events: an order event with type CREATED, UPDATED or DELETED, orderId and orderStatus "
+                + "for each change. Customers receive their own orders, admins every order. When events come from "
+                + "a change stream on MongoDB older than 6.0, DELETED reaches admins only, the owner of a deleted "
+                + "order is not known there. Idle streams get a heartbeat comment; a client that falls behind is "
+                + "disconnected and should reload its orders.",
+        security = { @SecurityRequirement(name = "bearerAuth") }
+    )
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    @ApiResponse(responseCode = "503", description = "Too many open event streams")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    // Declared as ResponseEntity<SseEmitter>, Spring MVC only streams bodies whose declared type is an emitter.
+    // EventSource ignores the body of a failed response, so the 503 carries only Retry-After.
+    public ResponseEntity<SseEmitter> streamOrderEvents(Authentication authentication) {
+        try {
+            SseEmitter emitter = orderEventBroadcaster.subscribe(isAdmin(authentication) ? null : authentication.getName());
+            return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
     }
 
     @Operation(
@@ -96,13 +303,32 @@ public class OrderController {
 
     @Operation(
         summary = "Get current user's orders",
+        description = "Newest first. Returns the full list by default. Pass limit (and the returned next cursor) "
+                + "for keyset pagination, optionally filtered by orderStatus and an orderDate range [from, to).",
         security = { @SecurityRequirement(name = "bearerAuth") }
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved user's orders")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
     @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     @GetMapping("/my")
-    public ResponseEntity<List<OrderItemResponse>> getMyOrders() {
-        List<OrderItemResponse> orders = orderService.getOrdersForCurrentUser();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getMyOrders(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String orderStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (limit == null && cursor == null && orderStatus == null && from == null && to == null) {
+            List<OrderItemResponse> orders = orderService.getOrdersForCurrentUser();
+            return ResponseEntity.ok(orders);
+        }
+        try {
+            CursorPage<OrderItemResponse> page = orderService.getOrdersForCurrentUser(
+                    cursor, limit != null ? limit : 20, orderStatus, from, to);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 }
\ No newline at end of file
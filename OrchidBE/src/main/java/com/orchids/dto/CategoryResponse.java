@@ -1,9 +1,13 @@
 package com.orchids.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 @Data
 public class CategoryResponse {
-    private Long categoryId;
+    private String categoryId;
     private String categoryName;
+    // Only filled by the withCounts listing
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long orchidCount;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.orchids.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    // Opaque cursor for the next page, null when there are no more results
+    private String next;
+    // Only filled when the caller asks for a total
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+
+    public CursorPage(List<T> items, String next) {
+        this(items, next, null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.orchids.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrchidFacetResponse {
+    private List<OrchidResponse> items;
+    // Number of orchids matching all filters, items may be cut off by the limit
+    private int total;
+    // facet name -> value -> count, each facet counted with the filters of the other facets applied
+    private Map<String, Map<String, Integer>> facets;
+}
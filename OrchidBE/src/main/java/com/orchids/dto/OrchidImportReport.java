@@ -0,0 +1,28 @@
+package com.orchids.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrchidImportReport {
+    private int total;
+    private int imported;
+    private int failed;
+    private List<RowResult> rows;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        // 1-based position of the record in the uploaded file, header excluded
+        private int row;
+        private String status;
+        private String orchidId;
+        private String error;
+    }
+}
@@ -26,6 +26,6 @@ public class OrchidRequest {
     @NotNull(message = "isNatural must not be null")
     private Boolean isNatural;
 
-    @NotNull(message = "Category ID is required")
-    private Long categoryId;
+    @NotBlank(message = "Category ID is required")
+    private String categoryId;
 }
\ No newline at end of file
@@ -5,11 +5,11 @@ import java.math.BigDecimal;
 
 @Data
 public class OrchidResponse {
-    private Long orchidId;
+    private String orchidId;
     private String orchidName;
     private String orchidDescription;
     private String orchidUrl;
     private BigDecimal price;
     private Boolean isNatural;
-    private Long categoryId;
+    private String categoryId;
 }
\ No newline at end of file
@@ -4,7 +4,7 @@ import lombok.Data;
 
 @Data
 public class OrderDetailRequest {
-    private Long productId; // or orchidId, depending on your model
+    private String productId; // or orchidId, depending on your model
     private Integer quantity;
     private Double price;
 }
\ No newline at end of file
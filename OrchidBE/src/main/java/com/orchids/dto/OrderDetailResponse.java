@@ -4,8 +4,8 @@ import lombok.Data;
 
 @Data
 public class OrderDetailResponse {
-    private Long id;
-    private Long productId; // or orchidId, depending on your model
+    private String id;
+    private String productId; // or orchidId, depending on your model
     private String orchidName;
     private String orchidUrl;
     private Integer quantity;
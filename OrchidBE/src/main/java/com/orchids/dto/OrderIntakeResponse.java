@@ -0,0 +1,17 @@
+package com.orchids.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderIntakeResponse {
+    private String orderId;
+    // QUEUED, CREATED or FAILED
+    private String status;
+    private String error;
+}
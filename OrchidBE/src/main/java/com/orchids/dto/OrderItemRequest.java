@@ -6,11 +6,11 @@ import java.util.List;
 
 @Data
 public class OrderItemRequest {
-    private Long orchidId;
+    private String orchidId;
     private LocalDateTime orderDate;
     private String orderStatus;
     private Double price;
     private Integer quantity;
-    private Long accountId;
+    private String accountId;
     private List<OrderDetailRequest> orderDetails;
 }
\ No newline at end of file
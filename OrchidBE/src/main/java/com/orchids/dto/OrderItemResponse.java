@@ -7,11 +7,11 @@ import java.util.List;
 
 @Data
 public class OrderItemResponse {
-    private Long orchidId;
+    private String orchidId;
     private LocalDateTime orderDate;
     private String orderStatus;
     private Double price;
-    private Long accountId;
+    private String accountId;
     private String accountUsername;
     private List<OrderDetailResponse> orderDetails;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.orchids.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderStatusEvent {
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    // CREATED, UPDATED or DELETED
+    private String type;
+    private String orderId;
+    private String orderStatus;
+    // Decides which customer receives the event, not sent to clients
+    @JsonIgnore
+    private String accountName;
+}
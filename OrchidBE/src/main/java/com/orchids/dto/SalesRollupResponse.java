@@ -0,0 +1,18 @@
+package com.orchids.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SalesRollupResponse {
+    // Absent for totals over a whole range
+    private String bucket;
+    private String dimension;
+    private String key;
+    private BigDecimal revenue;
+    private long quantity;
+    private long orders;
+}
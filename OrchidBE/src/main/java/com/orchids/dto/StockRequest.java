@@ -0,0 +1,9 @@
+package com.orchids.dto;
+
+import lombok.Data;
+
+@Data
+public class StockRequest {
+    // Units to add, negative to remove
+    private long quantity;
+}
@@ -0,0 +1,20 @@
+package com.orchids.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockResponse {
+    private String orchidId;
+    // false when the orchid has never been stocked, it then sells without limit
+    private boolean tracked;
+    // Units that can still be ordered
+    private Long available;
+    // Units held by orders that are not written yet
+    private Long reserved;
+}
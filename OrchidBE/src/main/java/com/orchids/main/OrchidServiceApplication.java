@@ -8,6 +8,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = {
@@ -18,6 +19,7 @@ import org.springframework.data.mongodb.repository.config.EnableMongoRepositorie
         "com.orchids.security"
 })
 @EnableMongoRepositories(basePackages = "com.orchids.repository")
+@EnableScheduling
 public class OrchidServiceApplication implements CommandLineRunner {
     @Autowired
     private RoleService roleService;
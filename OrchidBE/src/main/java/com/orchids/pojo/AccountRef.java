@@ -0,0 +1,22 @@
+package com.orchids.pojo;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+
+// What an order keeps of its account. Stored under account._id so the order indexes keep working.
+@Getter
+@Setter
+public class AccountRef {
+    @Id
+    private String accountId;
+
+    private String accountName;
+
+    public static AccountRef of(Account account) {
+        AccountRef ref = new AccountRef();
+        ref.setAccountId(account.getAccountId());
+        ref.setAccountName(account.getAccountName());
+        return ref;
+    }
+}
@@ -0,0 +1,23 @@
+package com.orchids.pojo;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Cold copy of an order. Only the fields order history filters and sorts on stay readable,
+// the full order is kept as gzip-compressed BSON in data.
+@Document(collection = "orders_archive")
+@Getter
+@Setter
+public class ArchivedOrder {
+    @Id
+    private String orderId;
+    private AccountRef account;
+    private LocalDateTime orderDate;
+    private String orderStatus;
+    private LocalDateTime archivedAt;
+    private byte[] data;
+}
@@ -18,6 +18,7 @@ public class Category {
     private String categoryName;
     private String status = "ACTIVE";
 
-    @DBRef
+    // Lazy so reading a category never resolves the referenced orchids one query at a time
+    @DBRef(lazy = true)
     private List<Orchid> orchids;
 }
\ No newline at end of file
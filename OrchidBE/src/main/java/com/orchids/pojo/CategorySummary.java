@@ -0,0 +1,17 @@
+package com.orchids.pojo;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+
+// Read model for the category listing with the number of ACTIVE orchids in each category
+@Getter
+@Setter
+public class CategorySummary {
+    @Id
+    private String categoryId;
+
+    private String categoryName;
+
+    private long orchidCount;
+}
@@ -0,0 +1,22 @@
+package com.orchids.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Units on hand per orchid, kept out of the orchid document so catalog saves never overwrite it.
+// Orchids without a document here are not stock tracked.
+@Document(collection = "orchid_stock")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrchidStock {
+    @Id
+    private String orchidId;
+
+    private long available;
+}
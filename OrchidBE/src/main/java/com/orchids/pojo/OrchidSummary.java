@@ -0,0 +1,34 @@
+package com.orchids.pojo;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+
+import java.math.BigDecimal;
+
+// Read model for catalog queries, only holds the fields OrchidResponse needs
+@Getter
+@Setter
+public class OrchidSummary {
+    @Id
+    private String orchidId;
+
+    private String orchidName;
+
+    private String orchidDescription;
+
+    private String orchidUrl;
+
+    private BigDecimal price;
+
+    private Boolean isNatural;
+
+    private CategoryRef category;
+
+    @Getter
+    @Setter
+    public static class CategoryRef {
+        @Id
+        private String categoryId;
+    }
+}
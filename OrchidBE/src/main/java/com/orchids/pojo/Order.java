@@ -16,7 +16,7 @@ import java.util.List;
 public class Order {
     @Id
     private String orderId;
-    private Account account;
+    private AccountRef account;
     private LocalDateTime orderDate;
     private String orderStatus;
     private BigDecimal totalAmount;
@@ -16,7 +16,9 @@ public class OrderDetail {
     @Id
     private String orderDetailId;
     private String orderId;  // Store only the ID instead of the full Order object
-    @DBRef
+    private String orchidId;
+    // Lazy so reading an order never resolves its lines one orchid at a time, see OrchidService.getOrchidsByIds
+    @DBRef(lazy = true)
     private Orchid orchid;
     private BigDecimal price;
     private Integer quantity;
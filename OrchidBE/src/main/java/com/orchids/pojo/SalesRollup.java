@@ -0,0 +1,39 @@
+package com.orchids.pojo;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+
+// One counter document per granularity, time bucket, dimension and key, kept up to date with $inc
+@Document(collection = "sales_rollups")
+@Getter
+@Setter
+public class SalesRollup {
+    // granularity|bucket|dimension|key
+    @Id
+    private String rollupId;
+
+    // DAY or HOUR
+    private String granularity;
+
+    // yyyy-MM-dd for DAY, yyyy-MM-ddTHH for HOUR, so buckets sort and range-compare as strings
+    private String bucket;
+
+    // TOTAL, CATEGORY or ORCHID
+    private String dimension;
+
+    // ALL for TOTAL, otherwise the category or orchid id
+    private String key;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal revenue;
+
+    private long quantity;
+
+    private long orders;
+}
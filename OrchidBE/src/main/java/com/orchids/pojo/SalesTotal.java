@@ -0,0 +1,21 @@
+package com.orchids.pojo;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+
+import java.math.BigDecimal;
+
+// Rollups summed over a date range for one key
+@Getter
+@Setter
+public class SalesTotal {
+    @Id
+    private String key;
+
+    private BigDecimal revenue;
+
+    private long quantity;
+
+    private long orders;
+}
@@ -1,10 +1,19 @@
 package com.orchids.repository;
 
 import com.orchids.pojo.Account;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface AccountRepository extends MongoRepository<Account, String> {
      Account findByAccountName(String username);
-}
\ No newline at end of file
+
+     // Backed by a Mongo cursor, callers must close the stream. Password hashes are never read.
+     @Meta(cursorBatchSize = 500)
+     @Query(value = "{}", fields = "{ 'password': 0 }", sort = "{ '_id': 1 }")
+     Stream<Account> streamAll();
+}
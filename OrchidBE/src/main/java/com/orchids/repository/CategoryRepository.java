@@ -1,10 +1,25 @@
 package com.orchids.repository;
 
 import com.orchids.pojo.Category;
+import com.orchids.pojo.CategorySummary;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends MongoRepository<Category, String> {
-    // Additional query methods can be defined here if needed
-}
\ No newline at end of file
+    // Skips the @DBRef orchid list, which would otherwise be resolved one orchid at a time
+    @Query(value = "{}", fields = "{ 'orchids': 0 }")
+    List<Category> findAllWithoutOrchids();
+
+    // One round trip: each category joins its ACTIVE orchids through the status_category_idx index and keeps only the count
+    @Aggregation(pipeline = {
+            "{ '$lookup': { 'from': 'orchids', 'localField': '_id', 'foreignField': 'category._id', "
+                    + "'pipeline': [ { '$match': { 'status': 'ACTIVE' } }, { '$count': 'count' } ], 'as': 'active' } }",
+            "{ '$project': { 'categoryName': 1, 'orchidCount': { '$ifNull': [ { '$first': '$active.count' }, 0 ] } } }"
+    })
+    List<CategorySummary> findAllWithActiveOrchidCounts();
+}
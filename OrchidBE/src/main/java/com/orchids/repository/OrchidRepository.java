@@ -1,7 +1,45 @@
 package com.orchids.repository;
 
 import com.orchids.pojo.Orchid;
+import com.orchids.pojo.OrchidSummary;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrchidRepository extends MongoRepository<Orchid, String> {
+    // Catalog reads project to these fields so orderDetails and the category's orchid references never leave Mongo
+    String SUMMARY_FIELDS = "{ 'orchidName': 1, 'orchidDescription': 1, 'orchidUrl': 1, 'price': 1, 'isNatural': 1, 'category._id': 1 }";
+
+    // Served by status_category_idx / status_id_idx, see MongoIndexInitializer
+    @Query(value = "{ 'status': ?0 }", fields = SUMMARY_FIELDS)
+    List<OrchidSummary> findSummariesByStatus(String status);
+
+    @Query(value = "{ 'status': ?0, 'category._id': ?1 }", fields = SUMMARY_FIELDS)
+    List<OrchidSummary> findSummariesByStatusAndCategoryId(String status, String categoryId);
+
+    @Query(value = "{ '_id': ?0 }", fields = SUMMARY_FIELDS)
+    Optional<OrchidSummary> findSummaryById(String orchidId);
+
+    // Any status, order lines keep pointing at orchids that were deleted later
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = SUMMARY_FIELDS)
+    List<OrchidSummary> findSummariesByIdIn(Collection<String> orchidIds);
+
+    // Keyset pagination on _id, the cursor is the last _id of the previous page
+    @Query(value = "{ 'status': ?0 }", fields = SUMMARY_FIELDS, sort = "{ '_id': 1 }")
+    List<OrchidSummary> findSummaryPage(String status, Limit limit);
+
+    @Query(value = "{ 'status': ?0, '_id': { '$gt': ?1 } }", fields = SUMMARY_FIELDS, sort = "{ '_id': 1 }")
+    List<OrchidSummary> findSummaryPageAfter(String status, ObjectId after, Limit limit);
+
+    // Backed by a Mongo cursor, callers must close the stream
+    @Meta(cursorBatchSize = 200)
+    @Query(value = "{ 'status': ?0 }", fields = SUMMARY_FIELDS, sort = "{ '_id': 1 }")
+    Stream<OrchidSummary> streamSummariesByStatus(String status);
 }
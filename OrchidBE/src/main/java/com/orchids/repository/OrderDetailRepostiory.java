@@ -3,6 +3,8 @@ package com.orchids.repository;
 import com.orchids.pojo.OrderDetail;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.List;
+
 public interface OrderDetailRepostiory extends MongoRepository<OrderDetail, String> {
-    // Additional query methods can be defined here if needed
+    List<OrderDetail> findByOrderId(String orderId);
 }
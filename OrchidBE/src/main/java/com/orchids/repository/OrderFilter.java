@@ -0,0 +1,55 @@
+package com.orchids.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Optional filters for order listings, null fields are not applied
+@Getter
+@Setter
+public class OrderFilter {
+    private String accountId;
+    private String orderStatus;
+    // Inclusive
+    private LocalDateTime from;
+    // Exclusive
+    private LocalDateTime to;
+
+    // Stable key for caching results per filter combination
+    public String cacheKey() {
+        return accountId + "|" + orderStatus + "|" + from + "|" + to;
+    }
+
+    // Shared by the orders collection and the archive, whose documents keep these fields at the same paths
+    public List<Criteria> criteria() {
+        List<Criteria> conditions = new ArrayList<>();
+        if (accountId != null) {
+            conditions.add(Criteria.where("account._id").is(accountId));
+        }
+        if (orderStatus != null) {
+            conditions.add(Criteria.where("orderStatus").is(orderStatus));
+        }
+        if (from != null) {
+            conditions.add(Criteria.where("orderDate").gte(from));
+        }
+        if (to != null) {
+            conditions.add(Criteria.where("orderDate").lt(to));
+        }
+        return conditions;
+    }
+
+    // Keyset condition for orders strictly after (afterDate, afterId) in the given orderDate, _id direction
+    public static Criteria after(Sort.Direction direction, LocalDateTime afterDate, String afterId) {
+        boolean ascending = direction.isAscending();
+        return new Criteria().orOperator(
+                ascending ? Criteria.where("orderDate").gt(afterDate) : Criteria.where("orderDate").lt(afterDate),
+                ascending
+                        ? Criteria.where("orderDate").is(afterDate).and("_id").gt(afterId)
+                        : Criteria.where("orderDate").is(afterDate).and("_id").lt(afterId));
+    }
+}
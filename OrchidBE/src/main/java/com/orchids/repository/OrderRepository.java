@@ -1,7 +1,19 @@
 package com.orchids.repository;
 
 import com.orchids.pojo.Order;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
-public interface OrderRepository extends MongoRepository<Order, String> {
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface OrderRepository extends MongoRepository<Order, String>, OrderRepositoryCustom {
+    // Backed by a Mongo cursor, callers must close the stream
+    @Meta(cursorBatchSize = 500)
+    @Query(value = "{}", sort = "{ '_id': 1 }")
+    Stream<Order> streamAll();
+
+    // Served by account_orderDate_id_idx
+    List<Order> findByAccountAccountIdOrderByOrderDateDescOrderIdDesc(String accountId);
 }
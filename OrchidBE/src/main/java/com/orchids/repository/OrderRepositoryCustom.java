@@ -0,0 +1,16 @@
+package com.orchids.repository;
+
+import com.orchids.pojo.Order;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+    // Sorted by orderDate then _id in the given direction. Resumes strictly after (afterDate, afterId) when both are given.
+    List<Order> findPage(OrderFilter filter, Sort.Direction direction, LocalDateTime afterDate, String afterId,
+                         long skip, int limit);
+
+    // Uses the collection metadata instead of counting when no filter is set
+    long count(OrderFilter filter);
+}
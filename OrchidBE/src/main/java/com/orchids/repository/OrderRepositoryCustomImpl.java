@@ -0,0 +1,46 @@
+package com.orchids.repository;
+
+import com.orchids.pojo.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Order> findPage(OrderFilter filter, Sort.Direction direction, LocalDateTime afterDate, String afterId,
+                                long skip, int limit) {
+        List<Criteria> conditions = filter.criteria();
+        if (afterDate != null && afterId != null) {
+            conditions.add(OrderFilter.after(direction, afterDate, afterId));
+        }
+        Query query = query(conditions);
+        query.with(Sort.by(direction, "orderDate", "_id")).skip(skip).limit(limit);
+        return mongoTemplate.find(query, Order.class);
+    }
+
+    @Override
+    public long count(OrderFilter filter) {
+        List<Criteria> conditions = filter.criteria();
+        if (conditions.isEmpty()) {
+            return mongoTemplate.estimatedCount(Order.class);
+        }
+        return mongoTemplate.count(query(conditions), Order.class);
+    }
+
+    private Query query(List<Criteria> conditions) {
+        Query query = new Query();
+        if (!conditions.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(conditions));
+        }
+        return query;
+    }
+}
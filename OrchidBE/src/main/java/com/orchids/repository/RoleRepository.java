@@ -3,5 +3,8 @@ package com.orchids.repository;
 import com.orchids.pojo.Role;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Optional;
+
 public interface RoleRepository extends MongoRepository<Role, String> {
+    Optional<Role> findByRoleName(String roleName);
 }
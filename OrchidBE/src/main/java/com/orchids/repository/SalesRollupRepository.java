@@ -0,0 +1,31 @@
+package com.orchids.repository;
+
+import com.orchids.pojo.SalesRollup;
+import com.orchids.pojo.SalesTotal;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
+
+// Served by granularity_dimension_bucket_idx / granularity_dimension_key_bucket_idx, see MongoIndexInitializer
+public interface SalesRollupRepository extends MongoRepository<SalesRollup, String> {
+
+    @Query(value = "{ 'granularity': ?0, 'dimension': ?1, 'bucket': { '$gte': ?2, '$lt': ?3 } }",
+            sort = "{ 'bucket': 1, 'key': 1 }")
+    List<SalesRollup> findRange(String granularity, String dimension, String fromBucket, String toBucket);
+
+    @Query(value = "{ 'granularity': ?0, 'dimension': ?1, 'key': ?2, 'bucket': { '$gte': ?3, '$lt': ?4 } }",
+            sort = "{ 'bucket': 1 }")
+    List<SalesRollup> findRangeForKey(String granularity, String dimension, String key,
+                                      String fromBucket, String toBucket);
+
+    @Aggregation(pipeline = {
+            "{ '$match': { 'granularity': 'DAY', 'dimension': ?0, 'bucket': { '$gte': ?1, '$lt': ?2 } } }",
+            "{ '$group': { '_id': '$key', 'revenue': { '$sum': '$revenue' }, "
+                    + "'quantity': { '$sum': '$quantity' }, 'orders': { '$sum': '$orders' } } }",
+            "{ '$sort': { 'revenue': -1 } }",
+            "{ '$limit': ?3 }"
+    })
+    List<SalesTotal> findTopByRevenue(String dimension, String fromBucket, String toBucket, int limit);
+}
@@ -1,11 +1,12 @@
 package com.orchids.security;
 
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -17,8 +18,14 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private JwtUtil jwtUtil;
+    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, VerifiedTokenCache tokenCache) {
+        this.jwtUtil = jwtUtil;
+        this.tokenCache = tokenCache;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,16 +39,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // One parse verifies the token and yields every claim, a token seen before is a hash lookup;
+        // the account is never loaded
         String jwt = authHeader.substring(7);
-        String username = jwtUtil.getUsernameFromToken(jwt);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        username, null, null);
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        Claims claims;
+        try {
+            claims = tokenCache.getOrVerify(jwt, jwtUtil::parseClaims);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Left unauthenticated, the security chain answers 401/403
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String username = claims.getSubject();
+        if (username != null) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    username, null, jwtUtil.getAuthorities(claims));
+            authToken.setDetails(detailsSource.buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
@@ -3,21 +3,28 @@ package com.orchids.security;
 import com.orchids.pojo.Account;
 import com.orchids.repository.AccountRepository;
 import com.orchids.repository.RoleRepository;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.List;
 
 @Component
 public class JwtUtil {
     private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
     private final SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
     private final long EXPIRATION_TIME = 864_000_000; // 10 days
+    // Immutable and thread-safe, built once instead of per call
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
 
     private final AccountRepository accountRepository;
     private final RoleRepository roleRepository;
@@ -34,12 +41,17 @@ public class JwtUtil {
         if (account == null) {
             throw new IllegalArgumentException("Account or role not found");
         }
+        return generateToken(account);
+    }
+
+    // For callers that already hold the account, e.g. right after the login check
+    public String generateToken(Account account) {
         String roleName = null;
         if (account.getRole() != null) {
             roleName = account.getRole().getRoleName();
         }
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(account.getAccountName())
                 .claim("role", roleName)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
@@ -47,36 +59,38 @@ public class JwtUtil {
                 .compact();
     }
 
+    // Verifies the signature and expiry once and returns every claim, throws JwtException when the token is not valid
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    // The role claim as a Spring authority; roles are stored as ROLE_ADMIN / ROLE_USER
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        String role = claims.get("role", String.class);
+        if (role == null || role.isBlank()) {
+            return List.of();
+        }
+        String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role.toUpperCase();
+        return List.of(new SimpleGrantedAuthority(authority));
+    }
+
     // Lấy username từ token
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     // Lấy role từ token
     public String getRoleFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
+        return parseClaims(token).get("role", String.class);
     }
 
     // Kiểm tra token hợp lệ
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,7 @@
+package com.orchids.security;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException() {
+        super("Too many logins in progress, retry shortly");
+    }
+}
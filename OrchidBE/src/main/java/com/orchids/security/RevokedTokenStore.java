@@ -0,0 +1,65 @@
+package com.orchids.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+// Revocations shared by every node and kept across restarts, keyed by the token's SHA-256.
+// A TTL index on expiresAt drops each one once the token would have expired anyway.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevokedTokenStore {
+    private static final String COLLECTION = "revoked_tokens";
+
+    private final MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    void createIndexes() {
+        try {
+            mongoTemplate.indexOps(COLLECTION).createIndex(new Index()
+                    .on("expiresAt", Sort.Direction.ASC)
+                    .expire(Duration.ZERO)
+                    .named("expiresAt_ttl_idx"));
+            mongoTemplate.indexOps(COLLECTION).createIndex(new Index()
+                    .on("revokedAt", Sort.Direction.ASC)
+                    .named("revokedAt_idx"));
+        } catch (DataAccessException e) {
+            log.error("Could not create the indexes on {}: {}", COLLECTION, e.getMessage());
+        }
+    }
+
+    public void revoke(String hash, Date expiresAt) {
+        mongoTemplate.save(new Document("_id", hash)
+                .append("revokedAt", new Date())
+                .append("expiresAt", expiresAt), COLLECTION);
+    }
+
+    public boolean isRevoked(String hash) {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(hash)), COLLECTION);
+    }
+
+    // Hash to expiry of every token revoked at or after since, on any node
+    public Map<String, Date> revokedSince(Date since) {
+        Query query = Query.query(Criteria.where("revokedAt").gte(since));
+        query.fields().include("expiresAt");
+        Map<String, Date> revocations = new HashMap<>();
+        for (Document revocation : mongoTemplate.find(query, Document.class, COLLECTION)) {
+            revocations.put(revocation.getString("_id"), revocation.getDate("expiresAt"));
+        }
+        return revocations;
+    }
+}
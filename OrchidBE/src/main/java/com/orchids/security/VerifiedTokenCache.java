@@ -0,0 +1,146 @@
+package com.orchids.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.orchids.config.JwtCacheProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Function;
+
+// Claims of tokens that already passed signature verification, keyed by the token's SHA-256 and kept until the
+// token's own exp. Revoked tokens are remembered until their exp too, so they are never verified back in.
+// Revocations live in RevokedTokenStore and every live one is mirrored in memory, so requests never wait on Mongo.
+// The first sync loads them all, until it succeeds verified tokens are looked up in the store instead. Revocations
+// made on other nodes are pulled in every jwt.cache.revocation-sync-interval.
+// Hit rate is under /actuator/metrics/cache.gets?tag=cache:jwtVerifiedTokens.
+@Component
+public class VerifiedTokenCache {
+    private static final Duration MAX_TOKEN_LIFETIME = Duration.ofDays(10);
+    // Overlap between syncs, so a revocation stamped by a node with a slightly late clock is not missed
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private final JwtCacheProperties properties;
+    private final RevokedTokenStore revokedTokenStore;
+    private final Cache<String, Claims> verified;
+    private final Cache<String, Date> revoked;
+    private final Counter revocations;
+    // 0 until the first sync, which therefore loads every revocation the store still holds
+    private volatile long lastSync;
+    private volatile boolean synced;
+
+    public VerifiedTokenCache(JwtCacheProperties properties, RevokedTokenStore revokedTokenStore,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.revokedTokenStore = revokedTokenStore;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(Expiry.creating((String hash, Claims claims) -> untilExpiry(claims.getExpiration())))
+                .recordStats()
+                .build();
+        // Unbounded, dropping a revocation before its exp would let the token back in. Only tokens revoked before
+        // they expire are held, which keeps it to the logouts of one token lifetime.
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(Expiry.creating((String hash, Date expiration) -> untilExpiry(expiration)))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwtVerifiedTokens");
+        this.revocations = Counter.builder("jwt.revocations").register(meterRegistry);
+    }
+
+    // Cached claims when the token was verified before, otherwise verifies it and caches the result.
+    // Throws JwtException for invalid and revoked tokens.
+    public Claims getOrVerify(String token, Function<String, Claims> verifier) {
+        String hash = hash(token);
+        if (revoked.getIfPresent(hash) != null) {
+            throw new RevokedTokenException();
+        }
+        if (!properties.isEnabled()) {
+            return verifyNotRevoked(token, hash, verifier);
+        }
+        Claims cached = verified.getIfPresent(hash);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = verifyNotRevoked(token, hash, verifier);
+        // Tokens without exp are not cached, there is no point at which the entry would go stale
+        if (claims.getExpiration() != null) {
+            verified.put(hash, claims);
+        }
+        return claims;
+    }
+
+    // Rejects the token from now on even though its signature stays valid
+    public void revoke(String token, Date expiration) {
+        String hash = hash(token);
+        // A token without exp never stops being valid, keep it out for as long as tokens are issued for
+        Date until = expiration != null
+                ? expiration
+                : new Date(System.currentTimeMillis() + MAX_TOKEN_LIFETIME.toMillis());
+        revokedTokenStore.revoke(hash, until);
+        revoked.put(hash, until);
+        verified.invalidate(hash);
+        revocations.increment();
+    }
+
+    // Drops tokens other nodes revoked from this node's cache
+    @Scheduled(fixedDelayString = "${jwt.cache.revocation-sync-interval:10s}")
+    public void syncRevocations() {
+        long now = System.currentTimeMillis();
+        Map<String, Date> revokedElsewhere = revokedTokenStore.revokedSince(new Date(lastSync - CLOCK_SKEW.toMillis()));
+        revokedElsewhere.forEach((hash, expiration) -> {
+            revoked.put(hash, expiration);
+            verified.invalidate(hash);
+        });
+        lastSync = now;
+        synced = true;
+    }
+
+    // Signature first, so invalid tokens never reach the store. Once synced the in-memory set checked by
+    // getOrVerify is complete and the store is not read at all.
+    private Claims verifyNotRevoked(String token, String hash, Function<String, Claims> verifier) {
+        Claims claims = verifier.apply(token);
+        if (!synced && revokedTokenStore.isRevoked(hash)) {
+            revoked.put(hash, claims.getExpiration() != null
+                    ? claims.getExpiration()
+                    : new Date(System.currentTimeMillis() + MAX_TOKEN_LIFETIME.toMillis()));
+            throw new RevokedTokenException();
+        }
+        return claims;
+    }
+
+    private static Duration untilExpiry(Date expiration) {
+        if (expiration == null) {
+            return Duration.ZERO;
+        }
+        long millis = expiration.getTime() - System.currentTimeMillis();
+        return millis > 0 ? Duration.ofMillis(millis) : Duration.ZERO;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class RevokedTokenException extends JwtException {
+        public RevokedTokenException() {
+            super("Token has been revoked");
+        }
+    }
+}
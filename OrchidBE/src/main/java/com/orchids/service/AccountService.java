@@ -5,10 +5,15 @@ import com.orchids.dto.AccountResponse;
 import com.orchids.pojo.Account;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface AccountService {
     public List<Account> getAllAccounts();
-    public Account validateLogin(String username, String password) ;
-    public AccountResponse registerAccount(AccountRequest account);
-    public AccountResponse registerAccountAdmin(AccountRequest request);
+    // Password checks and hashing run on the bounded hashing pool, the futures fail with
+    // PasswordHashingBusyException when it is saturated
+    public CompletableFuture<Account> validateLogin(String username, String password);
+    public CompletableFuture<AccountResponse> registerAccount(AccountRequest account);
+    public CompletableFuture<AccountResponse> registerAccountAdmin(AccountRequest request);
+    public void streamAllAccounts(Consumer<AccountResponse> consumer);
 }
\ No newline at end of file
@@ -6,69 +6,76 @@ import com.orchids.pojo.Account;
 import com.orchids.pojo.Role;
 import com.orchids.repository.AccountRepository;
 import com.orchids.repository.RoleRepository;
+import com.orchids.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AccountServiceImpl implements AccountService {
     private final AccountRepository accountRepository;
     private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final ExecutorService accountWriteExecutor;
 
     @Override
-    public Account validateLogin(String username, String password) {
+    public CompletableFuture<Account> validateLogin(String username, String password) {
         Account account = accountRepository.findByAccountName(username);
-        if (account != null && passwordEncoder.matches(password, account.getPassword())) {
-            return account;
+        if (account == null) {
+            return CompletableFuture.completedFuture(null);
         }
-        return null;
+        return passwordHasher.matches(password, account.getPassword())
+                .thenApply(matches -> matches ? account : null);
     }
 
     @Override
-    public AccountResponse registerAccount(AccountRequest request) {
-        Account account = new Account();
-        account.setAccountName(request.getAccountName());
-        account.setEmail(request.getEmail());
-        account.setPassword(passwordEncoder.encode(request.getPassword()));
-
-        Role role = roleRepository.findByRoleName("ROLE_USER").orElseThrow(() -> new RuntimeException("Role not found"));
-        account.setRole(role);
-
-        Account saved = accountRepository.save(account);
+    public CompletableFuture<AccountResponse> registerAccount(AccountRequest request) {
+        return register(request, "ROLE_USER");
+    }
 
-        AccountResponse response = new AccountResponse();
-        response.setAccountId(saved.getAccountId());
-        response.setAccountName(saved.getAccountName());
-        response.setEmail(saved.getEmail());
-        response.setRoleId(saved.getRole() != null ? saved.getRole().getRoleId() : null);
+    public CompletableFuture<AccountResponse> registerAccountAdmin(AccountRequest request) {
+        return register(request, "ROLE_ADMIN");
+    }
 
-        return response;
+    private CompletableFuture<AccountResponse> register(AccountRequest request, String roleName) {
+        // Looked up before hashing so a missing role fails without spending a BCrypt round
+        Role role = roleRepository.findByRoleName(roleName).orElseThrow(() -> new RuntimeException("Role not found"));
+        // The save runs off the hashing pool, BCrypt threads only hash
+        return passwordHasher.encode(request.getPassword()).thenApplyAsync(encodedPassword -> {
+            Account account = new Account();
+            account.setAccountName(request.getAccountName());
+            account.setEmail(request.getEmail());
+            account.setPassword(encodedPassword);
+            account.setRole(role);
+            return toResponse(accountRepository.save(account));
+        }, accountWriteExecutor);
     }
-    public AccountResponse registerAccountAdmin(AccountRequest request) {
-        Account account = new Account();
-        account.setAccountName(request.getAccountName());
-        account.setEmail(request.getEmail());
-        account.setPassword(passwordEncoder.encode(request.getPassword()));
 
-        Role role = roleRepository.findByRoleName("ROLE_ADMIN").orElseThrow(() -> new RuntimeException("Role not found"));
-        account.setRole(role);
+    public List<Account> getAllAccounts() {
+        return accountRepository.findAll();
+    }
 
-        Account saved = accountRepository.save(account);
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public void streamAllAccounts(Consumer<AccountResponse> consumer) {
+        try (Stream<Account> accounts = accountRepository.streamAll()) {
+            accounts.map(this::toResponse).forEach(consumer);
+        }
+    }
 
+    private AccountResponse toResponse(Account account) {
         AccountResponse response = new AccountResponse();
-        response.setAccountId(saved.getAccountId());
-        response.setAccountName(saved.getAccountName());
-        response.setEmail(saved.getEmail());
-        response.setRoleId(saved.getRole() != null ? saved.getRole().getRoleId() : null);
-
+        response.setAccountId(account.getAccountId());
+        response.setAccountName(account.getAccountName());
+        response.setEmail(account.getEmail());
+        response.setRoleId(account.getRole() != null ? account.getRole().getRoleId() : null);
         return response;
     }
-
-    public List<Account> getAllAccounts() {
-        return accountRepository.findAll();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.orchids.service;
+
+import com.orchids.dto.SalesRollupResponse;
+import com.orchids.pojo.Order;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsService {
+    void recordOrderChange(Order before, Order after);
+    List<SalesRollupResponse> getRevenue(String granularity, String dimension, String key, LocalDate from, LocalDate to);
+    List<SalesRollupResponse> getTopSellers(String dimension, LocalDate from, LocalDate to, int limit);
+    long rebuildRollups();
+}
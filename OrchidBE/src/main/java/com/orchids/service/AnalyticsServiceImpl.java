@@ -0,0 +1,276 @@
+package com.orchids.service;
+
+import com.orchids.dto.OrchidResponse;
+import com.orchids.dto.SalesRollupResponse;
+import com.orchids.pojo.Order;
+import com.orchids.pojo.OrderDetail;
+import com.orchids.pojo.SalesRollup;
+import com.orchids.pojo.SalesTotal;
+import com.orchids.repository.OrderRepository;
+import com.orchids.repository.SalesRollupRepository;
+import com.orchids.service.archive.OrderArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsServiceImpl implements AnalyticsService {
+    public static final String DAY = "DAY";
+    public static final String HOUR = "HOUR";
+    public static final String TOTAL = "TOTAL";
+    public static final String CATEGORY = "CATEGORY";
+    public static final String ORCHID = "ORCHID";
+
+    private static final String ALL = "ALL";
+    private static final String UNCATEGORIZED = "UNCATEGORIZED";
+    private static final DateTimeFormatter DAY_BUCKET = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter HOUR_BUCKET = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH");
+    private static final int MAX_TOP = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final SalesRollupRepository salesRollupRepository;
+    private final OrderRepository orderRepository;
+    private final OrchidService orchidService;
+    private final OrderArchiveService orderArchiveService;
+
+    // Applies the difference between two versions of an order, before is null for a new order and after for a deleted one
+    @Override
+    public void recordOrderChange(Order before, Order after) {
+        try {
+            applyOrderChange(before, after);
+        } catch (RuntimeException e) {
+            // The order itself is already stored, a rebuild brings the rollups back in line; the orchid lookups
+            // are inside too, so no rollup failure ever reaches the order write
+            String orderId = after != null ? after.getOrderId() : before.getOrderId();
+            log.error("Could not update sales rollups for order {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    private void applyOrderChange(Order before, Order after) {
+        Map<String, Increment> increments = new HashMap<>();
+        if (before != null) {
+            collect(before, -1, increments);
+        }
+        if (after != null) {
+            collect(after, 1, increments);
+        }
+        increments.values().removeIf(Increment::isZero);
+        if (increments.isEmpty()) {
+            return;
+        }
+        // One unordered bulk of upserts, every bucket the order touches is a single $inc
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SalesRollup.class);
+        increments.forEach((rollupId, increment) -> bulk.upsert(
+                Query.query(Criteria.where("_id").is(rollupId)),
+                new Update()
+                        .setOnInsert("granularity", increment.granularity)
+                        .setOnInsert("bucket", increment.bucket)
+                        .setOnInsert("dimension", increment.dimension)
+                        .setOnInsert("key", increment.key)
+                        .inc("revenue", new Decimal128(increment.revenue))
+                        .inc("quantity", increment.quantity)
+                        .inc("orders", increment.orders)));
+        bulk.execute();
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<SalesRollupResponse> getRevenue(String granularity, String dimension, String key,
+                                                LocalDate from, LocalDate to) {
+        String normalizedGranularity = granularity.toUpperCase();
+        String normalizedDimension = dimension.toUpperCase();
+        if (!DAY.equals(normalizedGranularity) && !HOUR.equals(normalizedGranularity)) {
+            throw new IllegalArgumentException("granularity must be DAY or HOUR");
+        }
+        requireDimension(normalizedDimension, true);
+        String fromBucket = bucketOf(normalizedGranularity, from.atStartOfDay());
+        String toBucket = bucketOf(normalizedGranularity, to.plusDays(1).atStartOfDay());
+        List<SalesRollup> rollups = key != null
+                ? salesRollupRepository.findRangeForKey(normalizedGranularity, normalizedDimension, key, fromBucket, toBucket)
+                : salesRollupRepository.findRange(normalizedGranularity, normalizedDimension, fromBucket, toBucket);
+        return rollups.stream().map(this::toResponse).collect(Collectors.toList());
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<SalesRollupResponse> getTopSellers(String dimension, LocalDate from, LocalDate to, int limit) {
+        String normalizedDimension = dimension.toUpperCase();
+        requireDimension(normalizedDimension, false);
+        return salesRollupRepository.findTopByRevenue(normalizedDimension,
+                        bucketOf(DAY, from.atStartOfDay()), bucketOf(DAY, to.plusDays(1).atStartOfDay()),
+                        Math.max(1, Math.min(limit, MAX_TOP)))
+                .stream()
+                .map(total -> toResponse(normalizedDimension, total))
+                .collect(Collectors.toList());
+    }
+
+    // Recomputes every rollup from the orders collection, for the initial backfill or after a failed increment.
+    // Increments from orders written while it runs can be lost, so run it in a quiet period.
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public long rebuildRollups() {
+        Map<String, Increment> totals = new HashMap<>();
+        long[] orders = { 0 };
+        // An interrupted archival run can leave an order in both collections, only old hot orders can be such copies
+        LocalDateTime boundary = orderArchiveService.archiveBoundary();
+        Set<String> oldHotOrders = new HashSet<>();
+        try (Stream<Order> stream = orderRepository.streamAll()) {
+            stream.forEach(order -> {
+                collect(order, 1, totals);
+                orders[0]++;
+                if (order.getOrderDate() != null && order.getOrderDate().isBefore(boundary)) {
+                    oldHotOrders.add(order.getOrderId());
+                }
+            });
+        }
+        // Archived orders keep counting towards revenue
+        orderArchiveService.streamAll(order -> {
+            if (!oldHotOrders.contains(order.getOrderId())) {
+                collect(order, 1, totals);
+                orders[0]++;
+            }
+        });
+        List<SalesRollup> rollups = new ArrayList<>(totals.size());
+        totals.forEach((rollupId, increment) -> {
+            SalesRollup rollup = new SalesRollup();
+            rollup.setRollupId(rollupId);
+            rollup.setGranularity(increment.granularity);
+            rollup.setBucket(increment.bucket);
+            rollup.setDimension(increment.dimension);
+            rollup.setKey(increment.key);
+            rollup.setRevenue(increment.revenue);
+            rollup.setQuantity(increment.quantity);
+            rollup.setOrders(increment.orders);
+            rollups.add(rollup);
+        });
+        salesRollupRepository.deleteAll();
+        salesRollupRepository.insert(rollups);
+        log.info("Rebuilt {} sales rollups from {} orders", rollups.size(), orders[0]);
+        return orders[0];
+    }
+
+    private void collect(Order order, int sign, Map<String, Increment> increments) {
+        if (order.getOrderDate() == null) {
+            return;
+        }
+        List<OrderDetail> details = order.getOrderDetails() != null ? order.getOrderDetails() : List.of();
+        Set<String> orchidIds = details.stream()
+                .map(OrderLines::orchidIdOf)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<String, OrchidResponse> orchids = orchidIds.isEmpty() ? Map.of() : orchidService.findOrchidsByIds(orchidIds);
+
+        long quantity = details.stream().mapToLong(detail -> detail.getQuantity() != null ? detail.getQuantity() : 0).sum();
+        BigDecimal total = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+        for (String granularity : List.of(DAY, HOUR)) {
+            String bucket = bucketOf(granularity, order.getOrderDate());
+            increment(increments, granularity, bucket, TOTAL, ALL, sign, total, quantity, true);
+            // An order counts once per category or orchid, however many of its lines share it
+            Set<String> counted = new HashSet<>();
+            for (OrderDetail detail : details) {
+                String orchidId = OrderLines.orchidIdOf(detail);
+                if (orchidId == null) {
+                    continue;
+                }
+                OrchidResponse orchid = orchids.get(orchidId);
+                String categoryId = orchid != null && orchid.getCategoryId() != null ? orchid.getCategoryId() : UNCATEGORIZED;
+                long lineQuantity = detail.getQuantity() != null ? detail.getQuantity() : 0;
+                BigDecimal lineRevenue = detail.getPrice() != null
+                        ? detail.getPrice().multiply(BigDecimal.valueOf(lineQuantity))
+                        : BigDecimal.ZERO;
+                increment(increments, granularity, bucket, CATEGORY, categoryId, sign, lineRevenue, lineQuantity,
+                        counted.add(CATEGORY + categoryId));
+                increment(increments, granularity, bucket, ORCHID, orchidId, sign, lineRevenue, lineQuantity,
+                        counted.add(ORCHID + orchidId));
+            }
+        }
+    }
+
+    private void increment(Map<String, Increment> increments, String granularity, String bucket, String dimension,
+                           String key, int sign, BigDecimal revenue, long quantity, boolean countOrder) {
+        String rollupId = granularity + "|" + bucket + "|" + dimension + "|" + key;
+        Increment increment = increments.computeIfAbsent(rollupId,
+                id -> new Increment(granularity, bucket, dimension, key));
+        increment.revenue = increment.revenue.add(sign < 0 ? revenue.negate() : revenue);
+        increment.quantity += sign * quantity;
+        if (countOrder) {
+            increment.orders += sign;
+        }
+    }
+
+    private String bucketOf(String granularity, LocalDateTime time) {
+        return HOUR.equals(granularity) ? HOUR_BUCKET.format(time) : DAY_BUCKET.format(time);
+    }
+
+    private void requireDimension(String dimension, boolean allowTotal) {
+        if (!CATEGORY.equals(dimension) && !ORCHID.equals(dimension) && !(allowTotal && TOTAL.equals(dimension))) {
+            throw new IllegalArgumentException(allowTotal
+                    ? "dimension must be TOTAL, CATEGORY or ORCHID"
+                    : "dimension must be CATEGORY or ORCHID");
+        }
+    }
+
+    private SalesRollupResponse toResponse(SalesRollup rollup) {
+        SalesRollupResponse response = new SalesRollupResponse();
+        response.setBucket(rollup.getBucket());
+        response.setDimension(rollup.getDimension());
+        response.setKey(rollup.getKey());
+        response.setRevenue(rollup.getRevenue());
+        response.setQuantity(rollup.getQuantity());
+        response.setOrders(rollup.getOrders());
+        return response;
+    }
+
+    private SalesRollupResponse toResponse(String dimension, SalesTotal total) {
+        SalesRollupResponse response = new SalesRollupResponse();
+        response.setDimension(dimension);
+        response.setKey(total.getKey());
+        response.setRevenue(total.getRevenue());
+        response.setQuantity(total.getQuantity());
+        response.setOrders(total.getOrders());
+        return response;
+    }
+
+    private static class Increment {
+        private final String granularity;
+        private final String bucket;
+        private final String dimension;
+        private final String key;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long quantity;
+        private long orders;
+
+        private Increment(String granularity, String bucket, String dimension, String key) {
+            this.granularity = granularity;
+            this.bucket = bucket;
+            this.dimension = dimension;
+            this.key = key;
+        }
+
+        private boolean isZero() {
+            return revenue.signum() == 0 && quantity == 0 && orders == 0;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.orchids.service;
+
+import com.orchids.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+
+// Drops only the catalog entries an orchid or category write can make stale
+final class CatalogCaches {
+
+    private CatalogCaches() {
+    }
+
+    // orchidId may be null for orchids that were never cached, e.g. freshly imported ones
+    static void evictOrchid(CacheManager cacheManager, String orchidId, Collection<String> categoryIds) {
+        if (orchidId != null) {
+            evict(cacheManager, CacheConfig.ORCHID, orchidId);
+        }
+        evict(cacheManager, CacheConfig.ORCHIDS, CacheConfig.ALL);
+        for (String categoryId : categoryIds) {
+            if (categoryId != null) {
+                evict(cacheManager, CacheConfig.ORCHIDS_BY_CATEGORY, categoryId);
+            }
+        }
+    }
+
+    // Evicted in the write itself rather than by @CacheEvict, which would only run after the change event
+    static void evictCategory(CacheManager cacheManager, String categoryId) {
+        evict(cacheManager, CacheConfig.CATEGORY, categoryId);
+        evict(cacheManager, CacheConfig.CATEGORIES, CacheConfig.ALL);
+        evict(cacheManager, CacheConfig.ORCHIDS_BY_CATEGORY, categoryId);
+    }
+
+    private static void evict(CacheManager cacheManager, String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
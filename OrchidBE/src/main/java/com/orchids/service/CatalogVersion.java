@@ -0,0 +1,34 @@
+package com.orchids.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Monotonic version of the orchid and category catalog, used as the ETag of every catalog read.
+// Moved last, after the writer evicted its cache entries and every other catalog listener refreshed its index,
+// so whoever reads the new version also reads the new content.
+@Component
+public class CatalogVersion {
+    // Seeded with the start time so a restart never reissues an ETag for different content
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onOrchidChanged(OrchidChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    public String etag() {
+        return "\"catalog-" + epoch + "-" + version.get() + "\"";
+    }
+}
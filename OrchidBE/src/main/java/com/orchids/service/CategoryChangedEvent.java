@@ -0,0 +1,11 @@
+package com.orchids.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Published by CategoryServiceImpl after every category write
+@Getter
+@RequiredArgsConstructor
+public class CategoryChangedEvent {
+    private final String categoryId;
+}
@@ -10,4 +10,5 @@ public interface CategoryService {
     void deleteCategory(String categoryId);
     CategoryResponse getCategoryById(String categoryId);
     List<CategoryResponse> getAllCategories();
+    List<CategoryResponse> getAllCategoriesWithCounts();
 }
\ No newline at end of file
@@ -1,10 +1,19 @@
 package com.orchids.service;
 
+import com.orchids.config.CacheConfig;
 import com.orchids.dto.CategoryRequest;
 import com.orchids.dto.CategoryResponse;
 import com.orchids.pojo.Category;
+import com.orchids.pojo.CategorySummary;
 import com.orchids.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +25,8 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
@@ -24,6 +35,8 @@ public class CategoryServiceImpl implements CategoryService {
         category.setCategoryName(request.getCategoryName());
         category.setStatus("ACTIVE");
         Category saved = categoryRepository.save(category);
+        CatalogCaches.evictCategory(cacheManager, saved.getCategoryId());
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getCategoryId()));
         return toResponse(saved);
     }
 
@@ -35,6 +48,8 @@ public class CategoryServiceImpl implements CategoryService {
         category.setCategoryName(request.getCategoryName());
         category.setStatus("ACTIVE");
         Category updated = categoryRepository.save(category);
+        CatalogCaches.evictCategory(cacheManager, categoryId);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
         return toResponse(updated);
     }
 
@@ -45,9 +60,12 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new RuntimeException("Category not found"));
         category.setStatus("DELETED");
         categoryRepository.deleteById(categoryId);
+        CatalogCaches.evictCategory(cacheManager, categoryId);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CATEGORY, key = "#categoryId", sync = true)
     public CategoryResponse getCategoryById(String categoryId) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
@@ -55,16 +73,41 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "T(com.orchids.config.CacheConfig).ALL", sync = true)
     public List<CategoryResponse> getAllCategories() {
-        return categoryRepository.findAll().stream()
+        return categoryRepository.findAllWithoutOrchids().stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_COUNTS, key = "T(com.orchids.config.CacheConfig).ALL", sync = true)
+    public List<CategoryResponse> getAllCategoriesWithCounts() {
+        return categoryRepository.findAllWithActiveOrchidCounts().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Any orchid or category write can move a count, so the counted listing is dropped as a whole.
+    // Runs before CatalogVersion moves the ETag.
+    @EventListener({ OrchidChangedEvent.class, CategoryChangedEvent.class })
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_COUNTS, key = "T(com.orchids.config.CacheConfig).ALL")
+    public void onCatalogChanged() {
+    }
+
     private CategoryResponse toResponse(Category category) {
         CategoryResponse response = new CategoryResponse();
         response.setCategoryId(category.getCategoryId());   
         response.setCategoryName(category.getCategoryName());
         return response;
     }
+
+    private CategoryResponse toResponse(CategorySummary category) {
+        CategoryResponse response = new CategoryResponse();
+        response.setCategoryId(category.getCategoryId());
+        response.setCategoryName(category.getCategoryName());
+        response.setOrchidCount(category.getOrchidCount());
+        return response;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.orchids.service;
+
+import com.orchids.dto.OrchidResponse;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Published by OrchidServiceImpl after every orchid write so in-memory catalog views stay in sync
+@Getter
+@RequiredArgsConstructor
+public class OrchidChangedEvent {
+    private final String orchidId;
+
+    // State of the orchid after the write, null when it is no longer ACTIVE
+    private final OrchidResponse orchid;
+}
@@ -0,0 +1,8 @@
+package com.orchids.service;
+
+import com.orchids.dto.OrchidImportReport;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface OrchidImportService {
+    OrchidImportReport importOrchids(MultipartFile file, MultipartFile images);
+}
@@ -0,0 +1,410 @@
+package com.orchids.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.orchids.config.CatalogImportProperties;
+import com.orchids.dto.OrchidImportReport;
+import com.orchids.pojo.Category;
+import com.orchids.pojo.Orchid;
+import com.orchids.repository.CategoryRepository;
+import com.orchids.service.minio.MinioService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrchidImportServiceImpl implements OrchidImportService {
+    private static final String IMPORTED = "IMPORTED";
+    private static final String FAILED = "FAILED";
+
+    private final MongoTemplate mongoTemplate;
+    private final CategoryRepository categoryRepository;
+    private final MinioService minioService;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final CatalogImportProperties properties;
+    private final ExecutorService orchidImageUploadExecutor;
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public OrchidImportReport importOrchids(MultipartFile file, MultipartFile images) {
+        long start = System.currentTimeMillis();
+        List<ImportRow> rows = readRows(file);
+        Map<String, byte[]> archive = readArchive(images);
+        Map<String, Category> categories = categoryRepository.findAllWithoutOrchids().stream()
+                .collect(Collectors.toMap(Category::getCategoryId, OrchidMapper::categorySnapshot));
+
+        // Rows only touch their own state, so validation can fan out across cores
+        rows.parallelStream()
+                .filter(row -> row.error == null)
+                .forEach(row -> validate(row, categories, archive));
+        uploadImages(rows, archive);
+        insert(rows);
+        publish(rows);
+
+        OrchidImportReport report = report(rows);
+        log.info("Imported {} of {} orchids in {} ms", report.getImported(), report.getTotal(),
+                System.currentTimeMillis() - start);
+        return report;
+    }
+
+    private void validate(ImportRow row, Map<String, Category> categories, Map<String, byte[]> archive) {
+        List<String> errors = new ArrayList<>();
+
+        String name = row.field("orchidName");
+        if (name == null) {
+            errors.add("Orchid name must not be blank");
+        } else if (name.length() > 100) {
+            errors.add("Orchid name must not exceed 100 characters");
+        }
+
+        String description = row.field("orchidDescription");
+        if (description == null) {
+            errors.add("Orchid description must not be blank");
+        } else if (description.length() > 500) {
+            errors.add("Orchid description must not exceed 500 characters");
+        }
+
+        BigDecimal price = null;
+        try {
+            price = row.field("price") != null ? new BigDecimal(row.field("price")) : null;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        if (price == null || price.signum() <= 0) {
+            errors.add("Price must be greater than 0");
+        }
+
+        String natural = row.field("isNatural");
+        if (!"true".equalsIgnoreCase(natural) && !"false".equalsIgnoreCase(natural)) {
+            errors.add("isNatural must be true or false");
+        }
+
+        Category category = row.field("categoryId") != null ? categories.get(row.field("categoryId")) : null;
+        if (category == null) {
+            errors.add("Category not found");
+        }
+
+        // An image is either an absolute URL kept as is, or the name of a file in the uploaded zip
+        String image = row.field("image");
+        String imageUrl = null;
+        if (image != null) {
+            if (image.startsWith("http://") || image.startsWith("https://")) {
+                imageUrl = image;
+            } else if (archive.containsKey(image)) {
+                row.imageEntry = image;
+            } else {
+                errors.add("Image " + image + " not found in the images archive");
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            row.error = String.join("; ", errors);
+            return;
+        }
+        Orchid orchid = new Orchid();
+        // Ids are assigned up front so bulk insert results can be matched back to rows
+        orchid.setOrchidId(new ObjectId().toHexString());
+        orchid.setOrchidName(name);
+        orchid.setOrchidDescription(description);
+        orchid.setOrchidUrl(imageUrl);
+        orchid.setPrice(price);
+        orchid.setIsNatural(Boolean.parseBoolean(natural));
+        orchid.setStatus("ACTIVE");
+        orchid.setCategory(category);
+        row.orchid = orchid;
+    }
+
+    // Each distinct archive entry is uploaded once, even if several rows share it
+    private void uploadImages(List<ImportRow> rows, Map<String, byte[]> archive) {
+        Map<String, List<ImportRow>> rowsByImage = rows.stream()
+                .filter(row -> row.orchid != null && row.imageEntry != null)
+                .collect(Collectors.groupingBy(row -> row.imageEntry));
+        if (rowsByImage.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] uploads = rowsByImage.entrySet().stream()
+                .map(entry -> CompletableFuture.runAsync(
+                        () -> upload(entry.getKey(), archive.get(entry.getKey()), entry.getValue()),
+                        orchidImageUploadExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(uploads).join();
+    }
+
+    private void upload(String entryName, byte[] content, List<ImportRow> rows) {
+        try {
+            String url = minioService.uploadBytesAndGetPresignedUrl(
+                    entryName, content, URLConnection.guessContentTypeFromName(entryName));
+            rows.forEach(row -> row.orchid.setOrchidUrl(url));
+        } catch (RuntimeException e) {
+            rows.forEach(row -> {
+                row.orchid = null;
+                row.error = "Image upload failed: " + e.getMessage();
+            });
+        }
+    }
+
+    private void insert(List<ImportRow> rows) {
+        List<ImportRow> valid = rows.stream().filter(row -> row.orchid != null).toList();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < valid.size(); from += batchSize) {
+            List<ImportRow> batch = valid.subList(from, Math.min(from + batchSize, valid.size()));
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Orchid.class);
+            bulk.insert(batch.stream().map(row -> row.orchid).toList());
+            try {
+                bulk.execute();
+                batch.forEach(row -> row.imported = true);
+            } catch (BulkOperationException e) {
+                // Unordered: everything except the reported indexes was written
+                Map<Integer, String> failures = e.getErrors().stream()
+                        .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage, (a, b) -> a));
+                for (int i = 0; i < batch.size(); i++) {
+                    ImportRow row = batch.get(i);
+                    if (failures.containsKey(i)) {
+                        row.error = failures.get(i);
+                    } else {
+                        row.imported = true;
+                    }
+                }
+            } catch (DataAccessException e) {
+                log.error("Bulk insert of {} orchids failed: {}", batch.size(), e.getMessage());
+                batch.forEach(row -> row.error = "Insert failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Same cache eviction and change events as OrchidServiceImpl.createOrchid, once per import
+    private void publish(List<ImportRow> rows) {
+        Set<String> categoryIds = new LinkedHashSet<>();
+        for (ImportRow row : rows) {
+            if (row.imported) {
+                categoryIds.add(row.orchid.getCategory().getCategoryId());
+            }
+        }
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+        // Evicted before the events, the last of their listeners moves the catalog ETag
+        CatalogCaches.evictOrchid(cacheManager, null, categoryIds);
+        for (ImportRow row : rows) {
+            if (row.imported) {
+                eventPublisher.publishEvent(new OrchidChangedEvent(row.orchid.getOrchidId(), OrchidMapper.toResponse(row.orchid)));
+            }
+        }
+    }
+
+    private OrchidImportReport report(List<ImportRow> rows) {
+        List<OrchidImportReport.RowResult> results = new ArrayList<>(rows.size());
+        int imported = 0;
+        for (ImportRow row : rows) {
+            if (row.imported) {
+                imported++;
+                results.add(new OrchidImportReport.RowResult(row.number, IMPORTED, row.orchid.getOrchidId(), null));
+            } else {
+                results.add(new OrchidImportReport.RowResult(row.number, FAILED, null, row.error));
+            }
+        }
+        return new OrchidImportReport(rows.size(), imported, rows.size() - imported, results);
+    }
+
+    private List<ImportRow> readRows(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Import file is required");
+        }
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        String contentType = file.getContentType() != null ? file.getContentType() : "";
+        boolean csv = name.endsWith(".csv") || contentType.contains("csv");
+        boolean ndjson = name.endsWith(".ndjson") || name.endsWith(".jsonl") || contentType.contains("ndjson");
+        if (!csv && !ndjson) {
+            throw new IllegalArgumentException("Unsupported import format, upload a .csv or .ndjson file");
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            return csv ? readCsv(reader) : readNdjson(reader);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read import file: " + e.getMessage());
+        }
+    }
+
+    // Header row names the columns: orchidName,orchidDescription,price,isNatural,categoryId,image
+    private List<ImportRow> readCsv(BufferedReader reader) throws IOException {
+        List<List<String>> records = parseCsv(reader);
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        List<String> header = records.get(0).stream()
+                .map(column -> column.replace("\uFEFF", "").trim())
+                .toList();
+        List<ImportRow> rows = new ArrayList<>(records.size() - 1);
+        for (int i = 1; i < records.size(); i++) {
+            ImportRow row = new ImportRow(i);
+            List<String> values = records.get(i);
+            if (values.size() != header.size()) {
+                row.error = "Expected " + header.size() + " columns but found " + values.size();
+            } else {
+                for (int c = 0; c < header.size(); c++) {
+                    row.fields.put(header.get(c), values.get(c));
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // RFC 4180: quoted fields may contain commas, line breaks and doubled quotes
+    private List<List<String>> parseCsv(BufferedReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean blank = true;
+        int c;
+        while ((c = reader.read()) != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                    continue;
+                }
+                reader.mark(1);
+                if (reader.read() == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    reader.reset();
+                }
+            } else if (ch == '"') {
+                quoted = true;
+                blank = false;
+            } else if (ch == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                blank = false;
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (!blank) {
+                    record.add(field.toString());
+                    records.add(record);
+                }
+                record = new ArrayList<>();
+                field.setLength(0);
+                blank = true;
+            } else {
+                field.append(ch);
+                blank = false;
+            }
+        }
+        if (!blank) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+
+    private List<ImportRow> readNdjson(BufferedReader reader) throws IOException {
+        List<ImportRow> rows = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            ImportRow row = new ImportRow(rows.size() + 1);
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    row.error = "Each line must be a JSON object";
+                } else {
+                    node.properties().forEach(entry ->
+                            row.fields.put(entry.getKey(), entry.getValue().isNull() ? null : entry.getValue().asText()));
+                }
+            } catch (IOException e) {
+                row.error = "Malformed JSON: " + e.getMessage();
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Entries are addressable by their path in the zip and by their bare file name
+    private Map<String, byte[]> readArchive(MultipartFile images) {
+        if (images == null || images.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, byte[]> entries = new HashMap<>();
+        long maxBytes = properties.getMaxArchiveSize().toBytes();
+        long totalBytes = 0;
+        try (ZipInputStream zip = new ZipInputStream(images.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                byte[] content = zip.readNBytes((int) Math.min(Integer.MAX_VALUE - 8L, maxBytes - totalBytes + 1));
+                totalBytes += content.length;
+                if (totalBytes > maxBytes) {
+                    throw new IllegalArgumentException("Images archive exceeds " + properties.getMaxArchiveSize());
+                }
+                String path = entry.getName();
+                entries.put(path, content);
+                entries.putIfAbsent(path.substring(path.lastIndexOf('/') + 1), content);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read images archive: " + e.getMessage());
+        }
+        return entries;
+    }
+
+    private static class ImportRow {
+        private final int number;
+        private final Map<String, String> fields = new HashMap<>();
+        private String imageEntry;
+        private Orchid orchid;
+        private String error;
+        private boolean imported;
+
+        private ImportRow(int number) {
+            this.number = number;
+        }
+
+        private String field(String name) {
+            String value = fields.get(name);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+}
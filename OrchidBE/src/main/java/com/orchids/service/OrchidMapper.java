@@ -0,0 +1,50 @@
+package com.orchids.service;
+
+import com.orchids.dto.OrchidResponse;
+import com.orchids.pojo.Category;
+import com.orchids.pojo.Orchid;
+import com.orchids.pojo.OrchidSummary;
+
+// Mapping shared by the orchid CRUD service and the bulk import
+final class OrchidMapper {
+
+    private OrchidMapper() {
+    }
+
+    static OrchidResponse toResponse(Orchid orchid) {
+        OrchidResponse response = new OrchidResponse();
+        response.setOrchidId(orchid.getOrchidId());
+        response.setOrchidName(orchid.getOrchidName());
+        response.setOrchidDescription(orchid.getOrchidDescription());
+        response.setOrchidUrl(orchid.getOrchidUrl());
+        response.setPrice(orchid.getPrice());
+        response.setIsNatural(orchid.getIsNatural());
+        response.setCategoryId(categoryIdOf(orchid));
+        return response;
+    }
+
+    static OrchidResponse toResponse(OrchidSummary orchid) {
+        OrchidResponse response = new OrchidResponse();
+        response.setOrchidId(orchid.getOrchidId());
+        response.setOrchidName(orchid.getOrchidName());
+        response.setOrchidDescription(orchid.getOrchidDescription());
+        response.setOrchidUrl(orchid.getOrchidUrl());
+        response.setPrice(orchid.getPrice());
+        response.setIsNatural(orchid.getIsNatural());
+        response.setCategoryId(orchid.getCategory() != null ? orchid.getCategory().getCategoryId() : null);
+        return response;
+    }
+
+    // Embed only the identifying fields so the orchid document does not copy the category's orchid references
+    static Category categorySnapshot(Category category) {
+        Category snapshot = new Category();
+        snapshot.setCategoryId(category.getCategoryId());
+        snapshot.setCategoryName(category.getCategoryName());
+        snapshot.setStatus(category.getStatus());
+        return snapshot;
+    }
+
+    static String categoryIdOf(Orchid orchid) {
+        return orchid.getCategory() != null ? orchid.getCategory().getCategoryId() : null;
+    }
+}
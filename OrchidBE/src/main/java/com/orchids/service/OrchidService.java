@@ -1,8 +1,12 @@
 package com.orchids.service;
 
+import com.orchids.dto.CursorPage;
 import com.orchids.dto.OrchidRequest;
 import com.orchids.dto.OrchidResponse;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface OrchidService {
     OrchidResponse createOrchid(OrchidRequest request);
@@ -11,4 +15,10 @@ public interface OrchidService {
     OrchidResponse getOrchidById(String orchidId);
     List<OrchidResponse> getAllOrchids();
     List<OrchidResponse> getOrchidsByCategory(String categoryId);
+    CursorPage<OrchidResponse> getOrchidsPage(String cursor, int limit);
+    void streamAllOrchids(Consumer<OrchidResponse> consumer);
+    Map<String, OrchidResponse> getOrchidsByIds(Collection<String> orchidIds);
+    // Same reads without a user check, for index builds and background writers that run with no logged-in user
+    void streamActiveOrchids(Consumer<OrchidResponse> consumer);
+    Map<String, OrchidResponse> findOrchidsByIds(Collection<String> orchidIds);
 }
\ No newline at end of file
@@ -1,22 +1,49 @@
 package com.orchids.service;
 
+import com.orchids.config.CacheConfig;
+import com.orchids.config.CatalogCache;
+import com.orchids.dto.CursorPage;
 import com.orchids.dto.OrchidRequest;
 import com.orchids.dto.OrchidResponse;
+import com.orchids.pojo.Category;
 import com.orchids.pojo.Orchid;
+import com.orchids.pojo.OrchidSummary;
+import com.orchids.repository.CategoryRepository;
 import com.orchids.repository.OrchidRepository;
 import com.orchids.service.minio.MinioService;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class OrchidServiceImpl implements OrchidService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrchidRepository orchidRepository;
+    private final CategoryRepository categoryRepository;
     private final MinioService minioService;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public OrchidResponse createOrchid(OrchidRequest request) {
@@ -31,9 +58,12 @@ public class OrchidServiceImpl implements OrchidService {
         orchid.setPrice(request.getPrice());
         orchid.setIsNatural(request.getIsNatural());
         orchid.setStatus("ACTIVE");
-        // Set category if needed
+        orchid.setCategory(categorySnapshot(request.getCategoryId()));
         Orchid saved = orchidRepository.save(orchid);
-        return toResponse(saved);
+        evictCatalog(saved.getOrchidId(), OrchidMapper.categoryIdOf(saved));
+        OrchidResponse response = OrchidMapper.toResponse(saved);
+        eventPublisher.publishEvent(new OrchidChangedEvent(saved.getOrchidId(), response));
+        return response;
     }
 
     @Override
@@ -44,15 +74,21 @@ public class OrchidServiceImpl implements OrchidService {
             presignedImageUrl = minioService.uploadFileAndGetPresignedUrl(request.getOrchidUrl());
         }
         Orchid orchid = orchidRepository.findById(orchidId).orElseThrow(() -> new RuntimeException("Orchid not found"));
+        String previousCategoryId = OrchidMapper.categoryIdOf(orchid);
         orchid.setOrchidName(request.getOrchidName());
         orchid.setOrchidDescription(request.getOrchidDescription());
         orchid.setOrchidUrl(presignedImageUrl);
         orchid.setPrice(request.getPrice());
         orchid.setIsNatural(request.getIsNatural());
         orchid.setStatus("ACTIVE");
-        // Update category if needed
+        if (request.getCategoryId() != null) {
+            orchid.setCategory(categorySnapshot(request.getCategoryId()));
+        }
         Orchid updated = orchidRepository.save(orchid);
-        return toResponse(updated);
+        evictCatalog(orchidId, previousCategoryId, OrchidMapper.categoryIdOf(updated));
+        OrchidResponse response = OrchidMapper.toResponse(updated);
+        eventPublisher.publishEvent(new OrchidChangedEvent(orchidId, response));
+        return response;
     }
 
     @Override
@@ -61,37 +97,129 @@ public class OrchidServiceImpl implements OrchidService {
         Orchid orchid = orchidRepository.findById(orchidId).orElseThrow(() -> new RuntimeException("Orchid not found"));
         orchid.setStatus("DELETED");
         orchidRepository.save(orchid);
+        evictCatalog(orchidId, OrchidMapper.categoryIdOf(orchid));
+        eventPublisher.publishEvent(new OrchidChangedEvent(orchidId, null));
     }
 
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Cacheable(cacheNames = CacheConfig.ORCHID, key = "#orchidId", sync = true)
     public OrchidResponse getOrchidById(String orchidId) {
-        Orchid orchid = orchidRepository.findById(orchidId).orElseThrow();
-        return toResponse(orchid);
+        OrchidSummary orchid = orchidRepository.findSummaryById(orchidId).orElseThrow();
+        return OrchidMapper.toResponse(orchid);
     }
 
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Cacheable(cacheNames = CacheConfig.ORCHIDS, key = "T(com.orchids.config.CacheConfig).ALL", sync = true)
     public List<OrchidResponse> getAllOrchids() {
-        return orchidRepository.findByStatus("ACTIVE").stream()
-                .map(this::toResponse)
+        return orchidRepository.findSummariesByStatus("ACTIVE").stream()
+                .map(OrchidMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
-    private OrchidResponse toResponse(Orchid orchid) {
-        OrchidResponse response = new OrchidResponse();
-        response.setOrchidId(orchid.getOrchidId());
-        response.setOrchidName(orchid.getOrchidName());
-        response.setOrchidDescription(orchid.getOrchidDescription());
-        response.setOrchidUrl(orchid.getOrchidUrl());
-        response.setPrice(orchid.getPrice());
-        response.setIsNatural(orchid.getIsNatural());
-        // Set categoryId if needed
-        return response;
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    public CursorPage<OrchidResponse> getOrchidsPage(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Limit fetch = Limit.of(pageSize + 1);
+        List<OrchidSummary> orchids = cursor == null || cursor.isBlank()
+                ? orchidRepository.findSummaryPage("ACTIVE", fetch)
+                : orchidRepository.findSummaryPageAfter("ACTIVE", decodeCursor(cursor), fetch);
+
+        String next = null;
+        if (orchids.size() > pageSize) {
+            orchids = orchids.subList(0, pageSize);
+            next = encodeCursor(orchids.get(pageSize - 1).getOrchidId());
+        }
+        List<OrchidResponse> items = orchids.stream()
+                .map(OrchidMapper::toResponse)
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, next);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    public void streamAllOrchids(Consumer<OrchidResponse> consumer) {
+        streamActiveOrchids(consumer);
     }
+
+    @Override
+    public void streamActiveOrchids(Consumer<OrchidResponse> consumer) {
+        try (Stream<OrchidSummary> orchids = orchidRepository.streamSummariesByStatus("ACTIVE")) {
+            orchids.map(OrchidMapper::toResponse).forEach(consumer);
+        }
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    public Map<String, OrchidResponse> getOrchidsByIds(Collection<String> orchidIds) {
+        return findOrchidsByIds(orchidIds);
+    }
+
+    // Cached orchids are served from the ORCHID cache, the rest come back from a single $in query and are cached
+    @Override
+    public Map<String, OrchidResponse> findOrchidsByIds(Collection<String> orchidIds) {
+        Map<String, OrchidResponse> orchids = new HashMap<>();
+        Cache cache = cacheManager.getCache(CacheConfig.ORCHID);
+        // Taken before the query so an orchid write evicting meanwhile keeps its old version out of the cache
+        long evictions = cache instanceof CatalogCache catalogCache ? catalogCache.evictions() : 0;
+        List<String> missing = new ArrayList<>();
+        for (String orchidId : orchidIds) {
+            OrchidResponse cached = cache != null ? cache.get(orchidId, OrchidResponse.class) : null;
+            if (cached != null) {
+                orchids.put(orchidId, cached);
+            } else {
+                missing.add(orchidId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (OrchidSummary summary : orchidRepository.findSummariesByIdIn(missing)) {
+                OrchidResponse response = OrchidMapper.toResponse(summary);
+                orchids.put(summary.getOrchidId(), response);
+                if (cache instanceof CatalogCache catalogCache) {
+                    catalogCache.putIfNotEvictedSince(summary.getOrchidId(), response, evictions);
+                } else if (cache != null) {
+                    cache.put(summary.getOrchidId(), response);
+                }
+            }
+        }
+        return orchids;
+    }
+
+    private String encodeCursor(String orchidId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(orchidId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ObjectId decodeCursor(String cursor) {
+        String orchidId;
+        try {
+            orchidId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!ObjectId.isValid(orchidId)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new ObjectId(orchidId);
+    }
+
+    private Category categorySnapshot(String categoryId) {
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new RuntimeException("Category not found"));
+        return OrchidMapper.categorySnapshot(category);
+    }
+
+    private void evictCatalog(String orchidId, String... categoryIds) {
+        CatalogCaches.evictOrchid(cacheManager, orchidId, Arrays.asList(categoryIds));
+    }
+
     @Override
+    @Cacheable(cacheNames = CacheConfig.ORCHIDS_BY_CATEGORY, key = "#categoryId", sync = true)
     public List<OrchidResponse> getOrchidsByCategory(String categoryId) {
-        List<Orchid> orchids = orchidRepository.findByCategory_CategoryId(categoryId);
-        return orchids.stream().map(this::toResponse).collect(Collectors.toList());
+        List<OrchidSummary> orchids = orchidRepository.findSummariesByStatusAndCategoryId("ACTIVE", categoryId);
+        return orchids.stream().map(OrchidMapper::toResponse).collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.orchids.service;
+
+import com.orchids.dto.OrderStatusEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Published by OrderServiceImpl after every order write, feeds order events when change streams are unavailable
+@Getter
+@RequiredArgsConstructor
+public class OrderChangedEvent {
+    private final OrderStatusEvent event;
+}
@@ -0,0 +1,23 @@
+package com.orchids.service;
+
+import com.mongodb.DBRef;
+import com.orchids.pojo.OrderDetail;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+
+final class OrderLines {
+
+    private OrderLines() {
+    }
+
+    // Reads the id straight from the lazy reference so the orchid itself is never loaded through it
+    static String orchidIdOf(OrderDetail detail) {
+        if (detail.getOrchidId() != null) {
+            return detail.getOrchidId();
+        }
+        if (detail.getOrchid() instanceof LazyLoadingProxy proxy) {
+            DBRef ref = proxy.toDBRef();
+            return ref != null ? ref.getId().toString() : null;
+        }
+        return detail.getOrchid() != null ? detail.getOrchid().getOrchidId() : null;
+    }
+}
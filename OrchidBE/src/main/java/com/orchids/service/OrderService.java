@@ -1,14 +1,27 @@
 package com.orchids.service;
 
+import com.orchids.dto.CursorPage;
 import com.orchids.dto.OrderItemResponse;
 import com.orchids.dto.OrderItemRequest;
+import com.orchids.pojo.Order;
+import com.orchids.repository.OrderFilter;
+import org.springframework.data.domain.Sort;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderService {
     OrderItemResponse createOrder(OrderItemRequest request);
+    Order prepareOrder(OrderItemRequest request);
+    void afterOrdersInserted(List<Order> orders);
+    void discardOrders(List<Order> orders);
     OrderItemResponse getOrderById(String orderId);
-    List<OrderItemResponse> getAllOrders();
+    CursorPage<OrderItemResponse> getOrdersPage(OrderFilter filter, Sort.Direction direction, Integer page,
+                                                String cursor, int limit, boolean withTotal);
     void deleteOrder(String orderId);
     OrderItemResponse updateOrder(String orderId, OrderItemRequest request);
     List<OrderItemResponse> getOrdersForCurrentUser();
+    CursorPage<OrderItemResponse> getOrdersForCurrentUser(String cursor, int limit, String orderStatus,
+                                                          LocalDateTime from, LocalDateTime to);
+    void streamAllOrders(Consumer<OrderItemResponse> consumer);
 }
\ No newline at end of file
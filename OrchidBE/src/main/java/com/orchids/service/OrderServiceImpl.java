@@ -1,59 +1,122 @@
 package com.orchids.service;
 
+import com.orchids.config.CacheConfig;
+import com.orchids.config.OrderListingProperties;
+import com.orchids.dto.CursorPage;
+import com.orchids.dto.OrderDetailRequest;
+import com.orchids.dto.OrchidResponse;
 import com.orchids.dto.OrderDetailResponse;
 import com.orchids.dto.OrderItemRequest;
 import com.orchids.dto.OrderItemResponse;
+import com.orchids.dto.OrderStatusEvent;
 import com.orchids.pojo.Order;
 import com.orchids.pojo.OrderDetail;
 import com.orchids.pojo.Account;
+import com.orchids.pojo.AccountRef;
+import com.orchids.pojo.Orchid;
 import com.orchids.repository.OrderRepository;
 import com.orchids.repository.AccountRepository;
-import com.orchids.repository.OrchidRepository;
-import com.orchids.repository.OrderDetailRepostiory;
+import com.orchids.repository.OrderFilter;
+import com.orchids.service.archive.OrderArchiveService;
+import com.orchids.service.pricing.PriceTable;
+import com.orchids.service.stock.StockService;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
-
+    private static final int MAX_ORDER_LINES = 100;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_CHUNK_SIZE = 500;
 
     private final OrderRepository orderRepository;
 
 
     private final AccountRepository accountRepository;
 
-    private final OrchidRepository orchidRepository;
+    private final PriceTable priceTable;
+
+    private final OrchidService orchidService;
+
+    private final AnalyticsService analyticsService;
+    private final StockService stockService;
+    private final OrderArchiveService orderArchiveService;
 
-    private final OrderDetailRepostiory orderDetailRepository;
+    private final CacheManager cacheManager;
+
+    private final OrderListingProperties listingProperties;
+
+    private final ApplicationEventPublisher eventPublisher;
 
     private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication != null ? authentication.getName() : null;
     }
 
-    private OrderDetailResponse toOrderDetailResponse(OrderDetail detail) {
+    private OrderDetailResponse toOrderDetailResponse(OrderDetail detail, Map<String, OrchidResponse> orchids) {
         OrderDetailResponse response = new OrderDetailResponse();
+        String orchidId = OrderLines.orchidIdOf(detail);
+        OrchidResponse orchid = orchidId != null ? orchids.get(orchidId) : null;
         response.setId(detail.getOrderDetailId());
-        response.setProductId(detail.getOrchid().getOrchidId() != null ? detail.getOrchid().getOrchidId() : null);
-        response.setOrchidName(detail.getOrchid() != null ? detail.getOrchid().getOrchidName() : null);
-        response.setOrchidUrl(detail.getOrchid() != null ? detail.getOrchid().getOrchidUrl() : null);
+        response.setProductId(orchidId);
+        response.setOrchidName(orchid != null ? orchid.getOrchidName() : null);
+        response.setOrchidUrl(orchid != null ? orchid.getOrchidUrl() : null);
         response.setQuantity(detail.getQuantity());
         response.setPrice(detail.getPrice() != null ? detail.getPrice().doubleValue() : 0.0);
         return response;
     }
 
+    // Resolves the orchids of every line on the page together, one cache pass plus at most one $in query
+    private List<OrderItemResponse> toResponses(List<Order> orders) {
+        Set<String> orchidIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order.getOrderDetails() != null) {
+                for (OrderDetail detail : order.getOrderDetails()) {
+                    String orchidId = OrderLines.orchidIdOf(detail);
+                    if (orchidId != null) {
+                        orchidIds.add(orchidId);
+                    }
+                }
+            }
+        }
+        Map<String, OrchidResponse> orchids = orchidIds.isEmpty() ? Map.of() : orchidService.getOrchidsByIds(orchidIds);
+        return orders.stream()
+                .map(order -> toResponse(order, orchids))
+                .collect(Collectors.toList());
+    }
+
     private OrderItemResponse toResponse(Order order) {
+        return toResponses(List.of(order)).get(0);
+    }
+
+    private OrderItemResponse toResponse(Order order, Map<String, OrchidResponse> orchids) {
         OrderItemResponse response = new OrderItemResponse();
         response.setOrchidId(order.getOrderId());
         response.setOrderDate(order.getOrderDate());
@@ -65,63 +128,150 @@ public class OrderServiceImpl implements OrderService {
         }
         if (order.getOrderDetails() != null) {
             List<OrderDetailResponse> detailResponses = order.getOrderDetails().stream()
-                    .map(this::toOrderDetailResponse)
+                    .map(detail -> toOrderDetailResponse(detail, orchids))
                     .collect(Collectors.toList());
             response.setOrderDetails(detailResponses);
         }
         return response;
     }
 
+    // The fields sales rollups and status events are derived from, taken before an update mutates the order in place
+    private Order rollupSnapshot(Order order) {
+        Order snapshot = new Order();
+        snapshot.setOrderId(order.getOrderId());
+        snapshot.setOrderDate(order.getOrderDate());
+        snapshot.setOrderStatus(order.getOrderStatus());
+        snapshot.setTotalAmount(order.getTotalAmount());
+        snapshot.setOrderDetails(order.getOrderDetails() != null ? new ArrayList<>(order.getOrderDetails()) : null);
+        return snapshot;
+    }
+
     private Order toEntity(OrderItemRequest request) {
         Order order = new Order();
         order.setOrderDate(request.getOrderDate() != null ? request.getOrderDate() : LocalDateTime.now());
         order.setOrderStatus(request.getOrderStatus() != null ? request.getOrderStatus() : "NEW");
-        order.setTotalAmount(BigDecimal.valueOf(request.getPrice() * request.getQuantity()));
-        if (request.getAccountId() != null) {
-            accountRepository.findById(request.getAccountId()).ifPresent(order::setAccount);
-        }
-        // You can map order details from request if needed
-
         return order;
     }
 
+    // Accepts orderDetails, or the single orchidId/quantity pair the storefront sends; repeated orchids are merged
+    private Map<String, Integer> requestedLines(OrderItemRequest request) {
+        List<OrderDetailRequest> lines = new ArrayList<>();
+        if (request.getOrderDetails() != null && !request.getOrderDetails().isEmpty()) {
+            lines.addAll(request.getOrderDetails());
+        } else if (request.getOrchidId() != null) {
+            OrderDetailRequest line = new OrderDetailRequest();
+            line.setProductId(request.getOrchidId());
+            line.setQuantity(request.getQuantity());
+            lines.add(line);
+        }
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException("An order needs at least one orchid");
+        }
+        if (lines.size() > MAX_ORDER_LINES) {
+            throw new IllegalArgumentException("An order can contain at most " + MAX_ORDER_LINES + " lines");
+        }
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderDetailRequest line : lines) {
+            if (line.getProductId() == null || line.getProductId().isBlank()) {
+                throw new IllegalArgumentException("Every order line needs a productId");
+            }
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be provided and quantity > 0");
+            }
+            quantities.merge(line.getProductId(), line.getQuantity(), Math::addExact);
+        }
+        return quantities;
+    }
+
     @Override
     @PreAuthorize("hasRole('ROLE_USER')")
     public OrderItemResponse createOrder(OrderItemRequest request) {
-        if (request.getPrice() == null || request.getQuantity() == null || request.getQuantity() <= 0) {
-            throw new IllegalArgumentException("Price and quantity must be provided and quantity > 0");
+        Order order = prepareOrder(request);
+        // The lines live inside the order document, so this single insert is atomic
+        Order saved;
+        try {
+            saved = orderRepository.insert(order);
+        } catch (RuntimeException e) {
+            discardOrders(List.of(order));
+            throw e;
         }
-        Account currentAccount = accountRepository.findByAccountName(getCurrentUsername());
+        afterOrdersInserted(List.of(saved));
+        return toResponse(saved);
+    }
+
+    // Validates and prices the request into a complete order with its id assigned, without writing anything
+    @Override
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public Order prepareOrder(OrderItemRequest request) {
+        Map<String, Integer> quantities = requestedLines(request);
+
+        // Priced from the in-memory price table, no catalog reads and no client-supplied prices
+        PriceTable.Quote quote = priceTable.quote(quantities);
+
         Order order = toEntity(request);
+        // The id is assigned up front so the embedded lines can carry it
+        order.setOrderId(new ObjectId().toHexString());
+        List<OrderDetail> details = new ArrayList<>(quantities.size());
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            OrderDetail detail = new OrderDetail();
+            detail.setOrderDetailId(new ObjectId().toHexString());
+            detail.setOrderId(order.getOrderId());
+            detail.setOrchidId(line.getKey());
+            detail.setOrchid(orchidReference(line.getKey()));
+            detail.setQuantity(line.getValue());
+            detail.setPrice(PriceTable.fromMinorUnits(quote.unitPrices().get(line.getKey())));
+            details.add(detail);
+        }
+        order.setOrderDetails(details);
+        order.setTotalAmount(PriceTable.fromMinorUnits(quote.total()));
+
+        Account currentAccount = accountRepository.findByAccountName(getCurrentUsername());
         if (currentAccount != null) {
-            order.setAccount(currentAccount);
+            order.setAccount(AccountRef.of(currentAccount));
+        } else if (request.getAccountId() != null) {
+            accountRepository.findById(request.getAccountId()).map(AccountRef::of).ifPresent(order::setAccount);
         }
-        Order savedOrder = orderRepository.save(order);
+        // Last, so nothing after it can fail and leave units held; the order id names the reservation
+        stockService.reserve(order.getOrderId(), quantities);
+        return order;
+    }
 
-        // Create and save OrderDetail for the purchased orchid
-        if (request.getOrchidId() != null) {
-            OrderDetail detail = new OrderDetail();
-            detail.setOrderId(savedOrder.getOrderId());
-            detail.setQuantity(request.getQuantity());
-            detail.setPrice(BigDecimal.valueOf(request.getPrice()));
-            orchidRepository.findById(request.getOrchidId()).ifPresent(detail::setOrchid);
-            OrderDetail savedDetail = orderDetailRepository.save(detail);
-            
-            // Update the order's orderDetails list
-            if (savedOrder.getOrderDetails() == null) {
-                savedOrder.setOrderDetails(new ArrayList<>());
-            }
-            savedOrder.getOrderDetails().add(savedDetail);
-            savedOrder = orderRepository.save(savedOrder);
+    // The DBRef only stores the id, so the line does not need the orchid document itself
+    private Orchid orchidReference(String orchidId) {
+        Orchid orchid = new Orchid();
+        orchid.setOrchidId(orchidId);
+        return orchid;
+    }
+
+    // Side effects of a new order, shared by the synchronous checkout and the async intake writer
+    @Override
+    public void afterOrdersInserted(List<Order> orders) {
+        for (Order order : orders) {
+            stockService.commit(order.getOrderId());
+            analyticsService.recordOrderChange(null, order);
+            publishChange(OrderStatusEvent.CREATED, order);
         }
+    }
 
-        return toResponse(savedOrder);
+    private void publishChange(String type, Order order) {
+        String accountName = order.getAccount() != null ? order.getAccount().getAccountName() : null;
+        eventPublisher.publishEvent(new OrderChangedEvent(
+                new OrderStatusEvent(type, order.getOrderId(), order.getOrderStatus(), accountName)));
+    }
+
+    // Prepared orders that were never written give their reserved stock back
+    @Override
+    public void discardOrders(List<Order> orders) {
+        for (Order order : orders) {
+            stockService.release(order.getOrderId());
+        }
     }
 
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
     public OrderItemResponse getOrderById(String orderId) {
         return orderRepository.findById(orderId)
+            .or(() -> orderArchiveService.findById(orderId))
             .filter(order -> {
                 // Admins can see all, users only their own
                 String username = getCurrentUsername();
@@ -142,41 +292,175 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public List<OrderItemResponse> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public CursorPage<OrderItemResponse> getOrdersPage(OrderFilter filter, Sort.Direction direction, Integer page,
+                                                       String cursor, int limit, boolean withTotal) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        OrderCursor after = null;
+        long skip = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            after = decodeCursor(cursor, direction);
+        } else if (page != null && page > 0) {
+            skip = (long) page * pageSize;
+            if (skip > listingProperties.getMaxOffset()) {
+                throw new IllegalArgumentException("Pages beyond " + listingProperties.getMaxOffset()
+                        + " orders can only be reached with the cursor");
+            }
+        }
+        // Fetch one extra row to know whether another page exists
+        List<Order> orders = orderRepository.findPage(filter, direction,
+                after != null ? after.orderDate() : null, after != null ? after.orderId() : null, skip, pageSize + 1);
+
+        String next = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            next = encodeCursor(orders.get(pageSize - 1), direction);
+        }
+        List<OrderItemResponse> items = toResponses(orders);
+        return new CursorPage<>(items, next, withTotal ? countOrders(filter) : null);
+    }
+
+    // Totals are served from a short-lived cache so paging through a listing does not recount each time
+    private long countOrders(OrderFilter filter) {
+        Cache counts = cacheManager.getCache(CacheConfig.ORDER_COUNTS);
+        if (counts == null) {
+            return orderRepository.count(filter);
+        }
+        Long total = counts.get(filter.cacheKey(), () -> orderRepository.count(filter));
+        return total != null ? total : 0;
     }
 
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public void deleteOrder(String orderId) {
-        orderRepository.deleteById(orderId);
+        orderRepository.findById(orderId).ifPresent(order -> {
+            orderRepository.deleteById(orderId);
+            analyticsService.recordOrderChange(order, null);
+            publishChange(OrderStatusEvent.DELETED, order);
+        });
     }
 
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public OrderItemResponse updateOrder(String orderId, OrderItemRequest request) {
         return orderRepository.findById(orderId).map(order -> {
+            Order before = rollupSnapshot(order);
             order.setOrderDate(request.getOrderDate() != null ? request.getOrderDate() : order.getOrderDate());
             order.setOrderStatus(request.getOrderStatus() != null ? request.getOrderStatus() : order.getOrderStatus());
-            order.setTotalAmount(BigDecimal.valueOf(request.getPrice() * request.getQuantity()));
+            // Admin override of the total, multiplied in minor units rather than double
+            if (request.getPrice() != null && request.getQuantity() != null) {
+                long unitPrice = PriceTable.toMinorUnits(BigDecimal.valueOf(request.getPrice()));
+                order.setTotalAmount(PriceTable.fromMinorUnits(Math.multiplyExact(unitPrice, (long) request.getQuantity())));
+            }
             if (request.getAccountId() != null) {
-                accountRepository.findById(request.getAccountId()).ifPresent(order::setAccount);
+                accountRepository.findById(request.getAccountId()).map(AccountRef::of).ifPresent(order::setAccount);
             }
             // Update order details if needed
             Order updated = orderRepository.save(order);
+            analyticsService.recordOrderChange(before, updated);
+            if (!Objects.equals(before.getOrderStatus(), updated.getOrderStatus())) {
+                publishChange(OrderStatusEvent.UPDATED, updated);
+            }
             return toResponse(updated);
         }).orElse(null);
     }
 
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public void streamAllOrders(Consumer<OrderItemResponse> consumer) {
+        // Lines are resolved per chunk of the cursor so the export keeps one orchid query per chunk
+        List<Order> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<Order> orders = orderRepository.streamAll()) {
+            orders.forEach(order -> {
+                chunk.add(order);
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    toResponses(chunk).forEach(consumer);
+                    chunk.clear();
+                }
+            });
+        }
+        toResponses(chunk).forEach(consumer);
+    }
+
     @PreAuthorize("hasRole('ROLE_USER')")
     public List<OrderItemResponse> getOrdersForCurrentUser() {
+        Account account = currentAccount();
+        if (account == null) return List.of();
+        return toResponses(merge(
+                orderRepository.findByAccountAccountIdOrderByOrderDateDescOrderIdDesc(account.getAccountId()),
+                orderArchiveService.findByAccountId(account.getAccountId()),
+                Integer.MAX_VALUE));
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public CursorPage<OrderItemResponse> getOrdersForCurrentUser(String cursor, int limit, String orderStatus,
+                                                                 LocalDateTime from, LocalDateTime to) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Decoded before any lookup so a bad cursor fails fast
+        OrderCursor after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor, Sort.Direction.DESC);
+        Account account = currentAccount();
+        if (account == null) return new CursorPage<>(List.of(), null);
+
+        OrderFilter filter = new OrderFilter();
+        filter.setAccountId(account.getAccountId());
+        filter.setOrderStatus(orderStatus);
+        filter.setFrom(from);
+        filter.setTo(to);
+        // Fetch one extra row to know whether another page exists
+        LocalDateTime afterDate = after != null ? after.orderDate() : null;
+        String afterId = after != null ? after.orderId() : null;
+        List<Order> orders = orderRepository.findPage(filter, Sort.Direction.DESC, afterDate, afterId, 0, pageSize + 1);
+        // Archived orders are all older than the boundary, so only a page reaching past it can include any
+        LocalDateTime oldest = orders.isEmpty() ? null : orders.get(orders.size() - 1).getOrderDate();
+        if (orders.size() <= pageSize || oldest == null || oldest.isBefore(orderArchiveService.archiveBoundary())) {
+            orders = merge(orders, orderArchiveService.findPage(filter, afterDate, afterId, pageSize + 1), pageSize + 1);
+        }
+
+        String next = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            next = encodeCursor(orders.get(pageSize - 1), Sort.Direction.DESC);
+        }
+        List<OrderItemResponse> items = toResponses(orders);
+        return new CursorPage<>(items, next);
+    }
+
+    // Both lists newest first; an order present in both (an archival run was interrupted) is taken from the hot list
+    private List<Order> merge(List<Order> hot, List<Order> archived, int limit) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Set<String> hotIds = hot.stream().map(Order::getOrderId).collect(Collectors.toSet());
+        return Stream.concat(hot.stream(), archived.stream().filter(order -> !hotIds.contains(order.getOrderId())))
+                .sorted(Comparator.comparing(Order::getOrderDate, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                        .thenComparing(Order::getOrderId).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private Account currentAccount() {
         String username = getCurrentUsername();
-        if (username == null) return List.of();
-        return orderRepository.findAll().stream()
-            .filter(order -> order.getAccount() != null && username.equals(order.getAccount().getAccountName()))
-            .map(this::toResponse)
-            .collect(Collectors.toList());
+        return username != null ? accountRepository.findByAccountName(username) : null;
+    }
+
+    // The cursor is the sort key of the last order on the page (orderDate and _id) plus the direction it was read in
+    private String encodeCursor(Order order, Sort.Direction direction) {
+        String key = direction + "|" + order.getOrderDate() + "|" + order.getOrderId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private OrderCursor decodeCursor(String cursor, Sort.Direction direction) {
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (key.length != 3 || !direction.name().equals(key[0]) || !ObjectId.isValid(key[2])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new OrderCursor(LocalDateTime.parse(key[1]), key[2]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private record OrderCursor(LocalDateTime orderDate, String orderId) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.orchids.service.archive;
+
+import com.orchids.config.OrderArchiveProperties;
+import com.orchids.pojo.ArchivedOrder;
+import com.orchids.pojo.Order;
+import com.orchids.repository.OrderFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Moves orders older than orders.archive.after out of the hot orders collection into orders_archive, and reads
+// them back for order history. Each batch is upserted into the archive before it is deleted from orders, so an
+// interrupted run leaves at most a duplicate that the next run resolves; reads always prefer the hot copy. The
+// delete only matches an order that is unchanged since it was read, so no update made in between is lost.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveService {
+    private final MongoTemplate mongoTemplate;
+    private final OrderArchiveProperties properties;
+
+    @Scheduled(fixedDelayString = "${orders.archive.interval:1h}", initialDelayString = "${orders.archive.initial-delay:5m}")
+    public void archiveOldOrders() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = archiveBoundary();
+        long moved = 0;
+        try {
+            int batch;
+            do {
+                batch = archiveBatch(cutoff);
+                moved += batch;
+                if (batch > 0) {
+                    Thread.sleep(properties.getPause().toMillis());
+                }
+            } while (batch == properties.getBatchSize());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException e) {
+            log.error("Order archival stopped after {} orders, the next run continues", moved, e);
+        }
+        if (moved > 0) {
+            log.info("Archived {} orders placed before {}", moved, cutoff);
+        }
+    }
+
+    // Orders placed at or after this are never in the archive
+    public LocalDateTime archiveBoundary() {
+        return LocalDateTime.now().minus(properties.getAfter());
+    }
+
+    public Optional<Order> findById(String orderId) {
+        return Optional.ofNullable(mongoTemplate.findById(orderId, ArchivedOrder.class)).map(this::toOrder);
+    }
+
+    public boolean contains(String orderId) {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(orderId)), ArchivedOrder.class);
+    }
+
+    // Every archived order, one cursor batch at a time
+    public void streamAll(Consumer<Order> action) {
+        Query query = new Query().cursorBatchSize(500);
+        try (Stream<ArchivedOrder> stream = mongoTemplate.stream(query, ArchivedOrder.class)) {
+            stream.map(this::toOrder).forEach(action);
+        }
+    }
+
+    // Newest first, like the hot order history
+    public List<Order> findByAccountId(String accountId) {
+        Query query = Query.query(Criteria.where("account._id").is(accountId))
+                .with(Sort.by(Sort.Direction.DESC, "orderDate", "_id"));
+        return mongoTemplate.find(query, ArchivedOrder.class).stream().map(this::toOrder).toList();
+    }
+
+    // Same contract as OrderRepository.findPage in descending order
+    public List<Order> findPage(OrderFilter filter, LocalDateTime afterDate, String afterId, int limit) {
+        List<Criteria> conditions = filter.criteria();
+        if (afterDate != null && afterId != null) {
+            conditions.add(OrderFilter.after(Sort.Direction.DESC, afterDate, afterId));
+        }
+        Query query = new Query();
+        if (!conditions.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(conditions));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "orderDate", "_id")).limit(limit);
+        return mongoTemplate.find(query, ArchivedOrder.class).stream().map(this::toOrder).toList();
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        String orders = mongoTemplate.getCollectionName(Order.class);
+        // Raw documents, so the archive keeps exactly what was stored; oldest first along orderDate_id_idx
+        Query query = Query.query(Criteria.where("orderDate").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "orderDate", "_id"))
+                .limit(properties.getBatchSize());
+        List<Document> batch = mongoTemplate.find(query, Document.class, orders);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedOrder.class);
+        BulkOperations removals = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, orders);
+        LocalDateTime now = LocalDateTime.now();
+        for (Document document : batch) {
+            Order order = mongoTemplate.getConverter().read(Order.class, document);
+            ArchivedOrder archived = new ArchivedOrder();
+            archived.setOrderId(order.getOrderId());
+            archived.setAccount(order.getAccount());
+            archived.setOrderDate(order.getOrderDate());
+            archived.setOrderStatus(order.getOrderStatus());
+            archived.setArchivedAt(now);
+            archived.setData(compress(document));
+            // Upsert so a batch repeated after a crash overwrites instead of failing on duplicate keys
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(order.getOrderId())), archived,
+                    FindAndReplaceOptions.options().upsert());
+            // Only removed while it still matches what was archived, an order changed meanwhile (e.g. its status
+            // by an admin) stays in orders and is archived again with the change by a later batch
+            removals.remove(new BasicQuery(new Document("_id", document.get("_id"))
+                    .append("$expr", new Document("$eq", List.of("$$ROOT", new Document("$literal", document))))));
+        }
+        bulk.execute();
+        int removed = removals.execute().getDeletedCount();
+        if (removed < batch.size()) {
+            log.info("{} orders changed while being archived, they are archived again", batch.size() - removed);
+        }
+        return batch.size();
+    }
+
+    private Order toOrder(ArchivedOrder archived) {
+        return mongoTemplate.getConverter().read(Order.class, decompress(archived.getData()));
+    }
+
+    private byte[] compress(Document document) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        documentCodec().encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(buffer.getSize() / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            buffer.pipe(gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private Document decompress(byte[] data) {
+        byte[] bson;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            bson = gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return documentCodec().decode(new BsonBinaryReader(ByteBuffer.wrap(bson)), DecoderContext.builder().build());
+    }
+
+    private Codec<Document> documentCodec() {
+        return mongoTemplate.getDb().getCodecRegistry().get(Document.class);
+    }
+}
@@ -0,0 +1,183 @@
+package com.orchids.service.events;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.orchids.config.OrderEventsProperties;
+import com.orchids.dto.OrderStatusEvent;
+import com.orchids.pojo.Order;
+import com.orchids.service.OrderChangedEvent;
+import com.orchids.service.archive.OrderArchiveService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Feeds OrderEventBroadcaster from a change stream on orders, so writes made by any instance reach every
+// open stream. A standalone server has no change streams; the feed then falls back to the OrderChangedEvent
+// published by this instance. Deletes carry no document, their owner comes from the pre-image, which needs
+// MongoDB 6.0+; without one a DELETED event only reaches admins.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderChangeStreamListener {
+    // "The $changeStream stage is only supported on replica sets"
+    private static final int CHANGE_STREAMS_UNSUPPORTED = 40573;
+    private static final long RETRY_MILLIS = 5_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderEventBroadcaster broadcaster;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderEventsProperties properties;
+
+    private volatile boolean streaming;
+    private volatile boolean running;
+    private boolean preImages;
+    private BsonDocument resumeToken;
+    private Thread watcher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isChangeStream()) {
+            log.info("Order change stream disabled, order events come from this instance only");
+            return;
+        }
+        running = true;
+        streaming = true;
+        watcher = new Thread(this::watch, "order-change-stream");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        // With a change stream the same write arrives from the database, publishing it here would duplicate it
+        if (!streaming) {
+            broadcaster.publish(event.getEvent());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private void watch() {
+        preImages = enablePreImages();
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openCursor()) {
+                log.info("Watching orders for status changes");
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        resumeToken = change.getResumeToken();
+                        OrderStatusEvent event = toEvent(change);
+                        if (event != null) {
+                            broadcaster.publish(event);
+                        }
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAMS_UNSUPPORTED) {
+                    log.info("MongoDB is not a replica set, order events come from this instance only");
+                    streaming = false;
+                    return;
+                }
+                log.warn("Order change stream failed, resuming in {} ms: {}", RETRY_MILLIS, e.getMessage());
+                pause();
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Order change stream failed, resuming in {} ms: {}", RETRY_MILLIS, e.getMessage());
+                pause();
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openCursor() {
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.or(
+                        Filters.in("operationType", "insert", "replace", "delete"),
+                        Filters.and(Filters.eq("operationType", "update"),
+                                Filters.exists("updateDescription.updatedFields.orderStatus")))),
+                // Order lines are not needed, _id stays so the stream can resume
+                Aggregates.project(Projections.include("operationType", "documentKey", "ns",
+                        "fullDocument.orderStatus", "fullDocument.account.accountName",
+                        "fullDocumentBeforeChange.account.accountName")));
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Order.class))
+                .watch(pipeline)
+                .fullDocument(FullDocument.UPDATE_LOOKUP);
+        if (preImages) {
+            stream = stream.fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE);
+        }
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    private OrderStatusEvent toEvent(ChangeStreamDocument<Document> change) {
+        BsonValue id = change.getDocumentKey() != null ? change.getDocumentKey().get("_id") : null;
+        if (id == null) {
+            return null;
+        }
+        String orderId = id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+        Document order = change.getFullDocument();
+        String orderStatus = order != null ? order.getString("orderStatus") : null;
+        // A delete has no full document, the pre-image still names the account it belonged to
+        Document owner = order != null ? order : change.getFullDocumentBeforeChange();
+        Document account = owner != null ? owner.get("account", Document.class) : null;
+        String accountName = account != null ? account.getString("accountName") : null;
+        String type = switch (change.getOperationType()) {
+            case INSERT -> OrderStatusEvent.CREATED;
+            case DELETE -> OrderStatusEvent.DELETED;
+            default -> OrderStatusEvent.UPDATED;
+        };
+        // Archival removes whole batches from orders; those orders still exist, so they are not announced
+        if (OrderStatusEvent.DELETED.equals(type) && orderArchiveService.contains(orderId)) {
+            return null;
+        }
+        return new OrderStatusEvent(type, orderId, orderStatus, accountName);
+    }
+
+    // Pre-images are a collection option since MongoDB 6.0, older servers reject it
+    private boolean enablePreImages() {
+        try {
+            mongoTemplate.getDb().runCommand(new Document("collMod", mongoTemplate.getCollectionName(Order.class))
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+            return true;
+        } catch (MongoException e) {
+            log.info("Order pre-images unavailable, deleted orders are announced to admins only: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
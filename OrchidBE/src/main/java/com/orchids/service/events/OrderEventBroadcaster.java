@@ -0,0 +1,154 @@
+package com.orchids.service.events;
+
+import com.orchids.config.OrderEventsProperties;
+import com.orchids.dto.OrderStatusEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Fans order events out to open SSE streams. Every stream has its own bounded buffer drained on a shared
+// sender pool, so one slow client never holds up the others; a client whose buffer fills is disconnected
+// and reloads its orders on reconnect. A send blocked on a stalled socket holds only its own sender thread, the
+// pool grows instead of queueing. The heartbeat drops a client stuck longer than send-timeout from the fan-out;
+// the blocked write itself ends at the container's write timeout (server.tomcat.connection-timeout).
+@Slf4j
+@Service
+public class OrderEventBroadcaster {
+    private static final String EVENT_NAME = "order";
+
+    private final OrderEventsProperties properties;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+
+    public OrderEventBroadcaster(OrderEventsProperties properties) {
+        this.properties = properties;
+        // At most one drain per subscriber runs at a time, so maxSubscribers threads always suffice
+        this.senders = new ThreadPoolExecutor(Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
+                Math.max(2, properties.getMaxSubscribers()), 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-event-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // accountName null subscribes to every order (admins), otherwise only to that account's orders
+    public SseEmitter subscribe(String accountName) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new IllegalStateException("Too many open order event streams");
+        }
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter, accountName, properties.getBufferSize());
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(properties.getTimeout().toMillis());
+    }
+
+    public void publish(OrderStatusEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accountName == null || subscriber.accountName.equals(event.getAccountName())) {
+                enqueue(subscriber, SseEmitter.event().name(EVENT_NAME).id(event.getOrderId())
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.events.heartbeat:15s}")
+    public void heartbeat() {
+        long stalledBefore = System.nanoTime() - properties.getSendTimeout().toNanos();
+        for (Subscriber subscriber : subscribers) {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && sendingSince - stalledBefore < 0) {
+                log.debug("Order event stream of {} stalled mid-send, disconnecting", subscriber.accountName);
+                disconnect(subscriber);
+                continue;
+            }
+            enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.buffer.offer(event)) {
+            log.debug("Order event stream of {} fell {} events behind, disconnecting",
+                    subscriber.accountName, properties.getBufferSize());
+            disconnect(subscriber);
+            return;
+        }
+        // One drain per subscriber at a time keeps its events in order
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                subscriber.sendingSince = System.nanoTime();
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    disconnect(subscriber);
+                    return;
+                } finally {
+                    subscriber.sendingSince = 0;
+                }
+            }
+            subscriber.draining.set(false);
+            // An event may have arrived between the last poll and clearing the flag
+        } while (!subscriber.buffer.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.buffer.clear();
+            // complete() waits for a send in progress on the same emitter, so never on the publishing thread
+            senders.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final String accountName;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() when the current send started, 0 while no send is in progress
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter, String accountName, int bufferSize) {
+            this.emitter = emitter;
+            this.accountName = accountName;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.orchids.service.facet;
+
+import com.orchids.dto.OrchidFacetResponse;
+import com.orchids.dto.OrchidResponse;
+import com.orchids.service.OrchidChangedEvent;
+import com.orchids.service.OrchidService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Keeps one bitset per facet value over the ACTIVE catalog so filters and counts are answered in memory
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrchidFacetService {
+    public static final String NATURAL = "isNatural";
+    public static final String CATEGORY = "category";
+    public static final String PRICE = "price";
+    private static final int MAX_RESULTS = 100;
+
+    private final OrchidService orchidService;
+
+    @Value("${catalog.facets.price-bounds:50,100,200,500}")
+    private BigDecimal[] priceBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Orchids get a dense slot number, freed slots are reused so the bitsets stay compact
+    private final List<OrchidResponse> slots = new ArrayList<>();
+    private final Map<String, Integer> slotByOrchid = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, BitSet> naturalSets = new HashMap<>();
+    private final Map<String, BitSet> categorySets = new HashMap<>();
+    private final Map<String, BitSet> priceSets = new LinkedHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildFacets() {
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            slotByOrchid.clear();
+            freeSlots.clear();
+            live.clear();
+            naturalSets.clear();
+            categorySets.clear();
+            priceSets.clear();
+            for (int i = 0; i <= priceBounds.length; i++) {
+                priceSets.put(priceLabel(i), new BitSet());
+            }
+            orchidService.streamActiveOrchids(this::add);
+            log.info("Orchid facets built for {} orchids", slotByOrchid.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Before CatalogVersion moves the ETag, so a client holding the new ETag never sees the old results
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    public void onOrchidChanged(OrchidChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getOrchidId());
+            if (event.getOrchid() != null) {
+                add(event.getOrchid());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Values are OR-ed within a facet and AND-ed across facets; an empty collection means no filter
+    public OrchidFacetResponse filter(Collection<Boolean> natural, Collection<String> categoryIds,
+                                      Collection<String> priceBuckets, int limit) {
+        int maxResults = Math.max(1, Math.min(limit, MAX_RESULTS));
+        lock.readLock().lock();
+        try {
+            BitSet naturalMatch = union(naturalSets, natural == null ? null : natural.stream().map(String::valueOf).toList());
+            BitSet categoryMatch = union(categorySets, categoryIds);
+            BitSet priceMatch = union(priceSets, priceBuckets);
+
+            BitSet matches = intersect(naturalMatch, categoryMatch, priceMatch);
+            List<OrchidResponse> items = new ArrayList<>();
+            for (int slot = matches.nextSetBit(0); slot >= 0 && items.size() < maxResults; slot = matches.nextSetBit(slot + 1)) {
+                items.add(slots.get(slot));
+            }
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(NATURAL, count(naturalSets, intersect(null, categoryMatch, priceMatch)));
+            facets.put(CATEGORY, count(categorySets, intersect(naturalMatch, null, priceMatch)));
+            facets.put(PRICE, count(priceSets, intersect(naturalMatch, categoryMatch, null)));
+            return new OrchidFacetResponse(items, matches.cardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(OrchidResponse orchid) {
+        int slot = freeSlots.isEmpty() ? slots.size() : freeSlots.pop();
+        if (slot == slots.size()) {
+            slots.add(orchid);
+        } else {
+            slots.set(slot, orchid);
+        }
+        slotByOrchid.put(orchid.getOrchidId(), slot);
+        live.set(slot);
+        if (orchid.getIsNatural() != null) {
+            naturalSets.computeIfAbsent(String.valueOf(orchid.getIsNatural()), key -> new BitSet()).set(slot);
+        }
+        if (orchid.getCategoryId() != null) {
+            categorySets.computeIfAbsent(orchid.getCategoryId(), key -> new BitSet()).set(slot);
+        }
+        if (orchid.getPrice() != null) {
+            priceSets.get(priceLabel(priceBucket(orchid.getPrice()))).set(slot);
+        }
+    }
+
+    private void remove(String orchidId) {
+        Integer slot = slotByOrchid.remove(orchidId);
+        if (slot == null) {
+            return;
+        }
+        live.clear(slot);
+        naturalSets.values().forEach(set -> set.clear(slot));
+        priceSets.values().forEach(set -> set.clear(slot));
+        categorySets.values().removeIf(set -> {
+            set.clear(slot);
+            return set.isEmpty();
+        });
+        slots.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    private int priceBucket(BigDecimal price) {
+        for (int i = 0; i < priceBounds.length; i++) {
+            if (price.compareTo(priceBounds[i]) < 0) {
+                return i;
+            }
+        }
+        return priceBounds.length;
+    }
+
+    private String priceLabel(int bucket) {
+        // Without bounds every priced orchid falls into one bucket
+        if (priceBounds.length == 0) {
+            return "all";
+        }
+        if (bucket == priceBounds.length) {
+            return priceBounds[bucket - 1].toPlainString() + "+";
+        }
+        String lower = bucket == 0 ? "0" : priceBounds[bucket - 1].toPlainString();
+        return lower + "-" + priceBounds[bucket].toPlainString();
+    }
+
+    // Null means the facet is not filtered
+    private BitSet union(Map<String, BitSet> sets, Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet result = new BitSet();
+        for (String value : values) {
+            BitSet set = sets.get(value);
+            if (set != null) {
+                result.or(set);
+            }
+        }
+        return result;
+    }
+
+    private BitSet intersect(BitSet... filters) {
+        BitSet result = (BitSet) live.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Integer> count(Map<String, BitSet> sets, BitSet scope) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        sets.forEach((value, set) -> {
+            BitSet matching = (BitSet) set.clone();
+            matching.and(scope);
+            counts.put(value, matching.cardinality());
+        });
+        return counts;
+    }
+}
@@ -0,0 +1,7 @@
+package com.orchids.service.idempotency;
+
+public class IdempotencyInProgressException extends RuntimeException {
+    public IdempotencyInProgressException() {
+        super("A request with this Idempotency-Key is still being processed");
+    }
+}
@@ -0,0 +1,7 @@
+package com.orchids.service.idempotency;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException() {
+        super("Idempotency-Key was already used for a different request");
+    }
+}
@@ -0,0 +1,9 @@
+package com.orchids.service.idempotency;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyStore {
+    // Runs action once per key. Duplicates wait for the first run and get its response back marked as replayed.
+    // A key reused with a different request fingerprint is rejected with IdempotencyKeyReuseException.
+    StoredResponse execute(String key, String fingerprint, Supplier<StoredResponse> action);
+}
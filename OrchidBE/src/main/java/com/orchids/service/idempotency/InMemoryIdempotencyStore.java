@@ -0,0 +1,79 @@
+package com.orchids.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orchids.config.IdempotencyProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Size-bounded, TTL-evicted store for a single node. Concurrent duplicates share the in-flight future.
+@Component
+@ConditionalOnProperty(prefix = "orders.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyProperties properties;
+    private final ConcurrentMap<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(IdempotencyProperties properties) {
+        this.properties = properties;
+        Cache<String, Entry> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        this.entries = cache.asMap();
+    }
+
+    @Override
+    public StoredResponse execute(String key, String fingerprint, Supplier<StoredResponse> action) {
+        Entry claim = new Entry(fingerprint);
+        Entry existing = entries.putIfAbsent(key, claim);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyKeyReuseException();
+            }
+            return await(existing.response).replay();
+        }
+        StoredResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            entries.remove(key, claim);
+            claim.response.completeExceptionally(e);
+            throw e;
+        }
+        if (!response.successful()) {
+            entries.remove(key, claim);
+        }
+        claim.response.complete(response);
+        return response;
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> response) {
+        try {
+            return response.get(properties.getInFlightTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyInProgressException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyInProgressException();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
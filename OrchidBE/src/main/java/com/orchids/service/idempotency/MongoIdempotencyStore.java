@@ -0,0 +1,120 @@
+package com.orchids.service.idempotency;
+
+import com.orchids.config.IdempotencyProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.function.Supplier;
+
+// Shared store for multi-node deployments: the unique _id decides which node runs the request,
+// the others poll until its response is stored. Keys expire through a TTL index on createdAt.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "orders.idempotency", name = "store", havingValue = "mongo")
+public class MongoIdempotencyStore implements IdempotencyStore {
+    private static final String COLLECTION = "idempotency_keys";
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+    private static final long POLL_MILLIS = 50;
+
+    private final MongoTemplate mongoTemplate;
+    private final IdempotencyProperties properties;
+
+    @PostConstruct
+    void createTtlIndex() {
+        try {
+            mongoTemplate.indexOps(COLLECTION).createIndex(new Index()
+                    .on("createdAt", Sort.Direction.ASC)
+                    .expire(properties.getTtl())
+                    .named("createdAt_ttl_idx"));
+        } catch (DataAccessException e) {
+            log.error("Could not create the TTL index on {}: {}", COLLECTION, e.getMessage());
+        }
+    }
+
+    @Override
+    public StoredResponse execute(String key, String fingerprint, Supplier<StoredResponse> action) {
+        Document claim = new Document("_id", key)
+                .append("fingerprint", fingerprint)
+                .append("status", IN_PROGRESS)
+                .append("createdAt", new Date());
+        try {
+            mongoTemplate.insert(claim, COLLECTION);
+        } catch (DuplicateKeyException e) {
+            return awaitExisting(key, fingerprint, action);
+        }
+        StoredResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(key);
+            throw e;
+        }
+        if (response.successful()) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(key)), new Update()
+                    .set("status", COMPLETED)
+                    .set("responseStatus", response.status())
+                    .set("body", response.body()), COLLECTION);
+        } else {
+            release(key);
+        }
+        return response;
+    }
+
+    private StoredResponse awaitExisting(String key, String fingerprint, Supplier<StoredResponse> action) {
+        long deadline = System.currentTimeMillis() + properties.getInFlightTimeout().toMillis();
+        while (true) {
+            Document existing = mongoTemplate.findById(key, Document.class, COLLECTION);
+            if (existing == null) {
+                // The first attempt failed and freed the key
+                return execute(key, fingerprint, action);
+            }
+            if (!fingerprint.equals(existing.getString("fingerprint"))) {
+                throw new IdempotencyKeyReuseException();
+            }
+            if (COMPLETED.equals(existing.getString("status"))) {
+                return new StoredResponse(existing.getInteger("responseStatus"), existing.getString("body"), true);
+            }
+            if (abandoned(existing)) {
+                // The node holding the claim died mid-request, take the key over
+                Query stale = Query.query(Criteria.where("_id").is(key).and("status").is(IN_PROGRESS)
+                        .and("createdAt").is(existing.getDate("createdAt")));
+                mongoTemplate.remove(stale, COLLECTION);
+                return execute(key, fingerprint, action);
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IdempotencyInProgressException();
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyInProgressException();
+            }
+        }
+    }
+
+    private boolean abandoned(Document claim) {
+        Date createdAt = claim.getDate("createdAt");
+        return createdAt != null
+                && createdAt.getTime() + 2 * properties.getInFlightTimeout().toMillis() < System.currentTimeMillis();
+    }
+
+    private void release(String key) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(key).and("status").is(IN_PROGRESS)), COLLECTION);
+    }
+}
@@ -0,0 +1,18 @@
+package com.orchids.service.idempotency;
+
+// The serialized response of the first request for a key
+public record StoredResponse(int status, String body, boolean replayed) {
+
+    public StoredResponse(int status, String body) {
+        this(status, body, false);
+    }
+
+    // Only successful responses are kept, a failed attempt frees the key for a retry
+    public boolean successful() {
+        return status >= 200 && status < 300;
+    }
+
+    public StoredResponse replay() {
+        return new StoredResponse(status, body, true);
+    }
+}
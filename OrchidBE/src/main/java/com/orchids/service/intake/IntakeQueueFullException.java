@@ -0,0 +1,7 @@
+package com.orchids.service.intake;
+
+public class IntakeQueueFullException extends RuntimeException {
+    public IntakeQueueFullException() {
+        super("Order intake is at capacity, retry shortly");
+    }
+}
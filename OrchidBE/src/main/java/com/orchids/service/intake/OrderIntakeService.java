@@ -0,0 +1,230 @@
+package com.orchids.service.intake;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orchids.config.OrderIntakeProperties;
+import com.orchids.dto.OrderIntakeResponse;
+import com.orchids.dto.OrderItemRequest;
+import com.orchids.pojo.Order;
+import com.orchids.repository.OrderRepository;
+import com.orchids.service.OrderService;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Opt-in async checkout: requests are validated and priced on the request thread, acknowledged with their
+// order id, and written by a single background writer in bulk inserts of up to batchSize orders or flushInterval.
+@Slf4j
+@Service
+public class OrderIntakeService {
+    public static final String QUEUED = "QUEUED";
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final MongoTemplate mongoTemplate;
+    private final OrderIntakeProperties properties;
+    private final BlockingQueue<Order> queue;
+    // Accepted and not yet written, never evicted and bounded by the queue
+    private final Map<String, Ticket> pending = new ConcurrentHashMap<>();
+    // Written or failed, kept for status polls within statusTtl and statusMaximumSize
+    private final Cache<String, Ticket> finished;
+    private Thread writer;
+    private volatile boolean running;
+
+    public OrderIntakeService(OrderService orderService, OrderRepository orderRepository, MongoTemplate mongoTemplate,
+                              OrderIntakeProperties properties) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.finished = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getStatusTtl())
+                .maximumSize(properties.getStatusMaximumSize())
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "order-intake-writer");
+        writer.start();
+    }
+
+    // Stops accepting, then lets the writer drain what was already acknowledged
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(Duration.ofSeconds(30).toMillis());
+        if (!queue.isEmpty()) {
+            log.error("Order intake stopped with {} accepted orders unwritten", queue.size());
+        }
+    }
+
+    public OrderIntakeResponse submit(OrderItemRequest request) {
+        if (!running) {
+            throw new IntakeQueueFullException();
+        }
+        Order order = orderService.prepareOrder(request);
+        Ticket ticket = new Ticket(order.getAccount() != null ? order.getAccount().getAccountName() : null);
+        pending.put(order.getOrderId(), ticket);
+        // Never blocks the request thread, a full queue is pushed back to the client
+        if (!queue.offer(order)) {
+            pending.remove(order.getOrderId());
+            orderService.discardOrders(List.of(order));
+            throw new IntakeQueueFullException();
+        }
+        return new OrderIntakeResponse(order.getOrderId(), QUEUED, null);
+    }
+
+    // Completes with the current status once the order is written or wait elapses, empty when the order is unknown
+    public Optional<CompletableFuture<OrderIntakeResponse>> status(String orderId, String accountName, Duration wait) {
+        Ticket pendingTicket = pending.get(orderId);
+        Ticket ticket = pendingTicket != null ? pendingTicket : finished.getIfPresent(orderId);
+        if (ticket == null) {
+            // The status expired or the node restarted, the orders collection is the source of truth
+            return orderRepository.findById(orderId)
+                    .filter(order -> accountName == null
+                            || (order.getAccount() != null && accountName.equals(order.getAccount().getAccountName())))
+                    .map(order -> CompletableFuture.completedFuture(new OrderIntakeResponse(orderId, CREATED, null)));
+        }
+        if (accountName != null && !accountName.equals(ticket.accountName)) {
+            return Optional.empty();
+        }
+        long waitMillis = Math.min(wait.toMillis(), properties.getMaxWait().toMillis());
+        return Optional.of(ticket.done.copy()
+                .completeOnTimeout(null, Math.max(0, waitMillis), TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> ticket.toResponse(orderId)));
+    }
+
+    private void runWriter() {
+        List<Order> batch = new ArrayList<>(properties.getBatchSize());
+        long flushNanos = properties.getFlushInterval().toNanos();
+        while (running || !queue.isEmpty()) {
+            try {
+                Order first = queue.poll(flushNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < properties.getBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    Order next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // write() only throws when the insert itself failed, nothing in the batch is known to be stored
+                log.error("Order intake writer failed on a batch of {} orders", batch.size(), e);
+                fail(batch, "Order could not be stored");
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Order> batch) {
+        Set<Integer> failed = new HashSet<>();
+        List<Order> rejected = new ArrayList<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        bulk.insert(batch);
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+                rejected.add(batch.get(error.getIndex()));
+                complete(batch.get(error.getIndex()).getOrderId(), FAILED, error.getMessage());
+            }
+            discardRejected(rejected);
+        } catch (DataAccessException e) {
+            log.error("Bulk insert of {} orders failed: {}", batch.size(), e.getMessage());
+            fail(batch, "Order could not be stored");
+            return;
+        }
+        List<Order> created = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (!failed.contains(i)) {
+                created.add(batch.get(i));
+            }
+        }
+        // These orders are stored: a failed side effect is logged, never turned into FAILED, which would release
+        // their stock and invite a resubmit that duplicates them
+        for (Order order : created) {
+            try {
+                orderService.afterOrdersInserted(List.of(order));
+            } catch (RuntimeException e) {
+                log.error("Order {} was stored but its post-insert steps failed", order.getOrderId(), e);
+            }
+            complete(order.getOrderId(), CREATED, null);
+        }
+    }
+
+    private void discardRejected(List<Order> rejected) {
+        try {
+            orderService.discardOrders(rejected);
+        } catch (RuntimeException e) {
+            log.error("Could not release the stock of {} rejected orders", rejected.size(), e);
+        }
+    }
+
+    private void fail(List<Order> orders, String error) {
+        orderService.discardOrders(orders);
+        orders.forEach(order -> complete(order.getOrderId(), FAILED, error));
+    }
+
+    private void complete(String orderId, String status, String error) {
+        Ticket ticket = pending.get(orderId);
+        if (ticket != null) {
+            ticket.status = status;
+            ticket.error = error;
+            // Moved before it leaves pending so a concurrent poll always finds it in one of the two
+            finished.put(orderId, ticket);
+            pending.remove(orderId);
+            ticket.done.complete(null);
+        }
+    }
+
+    private static class Ticket {
+        private final String accountName;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile String status = QUEUED;
+        private volatile String error;
+
+        private Ticket(String accountName) {
+            this.accountName = accountName;
+        }
+
+        private OrderIntakeResponse toResponse(String orderId) {
+            return new OrderIntakeResponse(orderId, status, error);
+        }
+    }
+}
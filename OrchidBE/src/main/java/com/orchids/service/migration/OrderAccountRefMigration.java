@@ -0,0 +1,186 @@
+package com.orchids.service.migration;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.orchids.config.OrderAccountMigrationProperties;
+import com.orchids.pojo.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.conversions.Bson;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Rewrites orders that still embed the whole Account down to the AccountRef fields (_id, accountName).
+// Progress is checkpointed in the migrations collection after every batch, so a restart resumes where it stopped.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderAccountRefMigration {
+    public static final String ID = "order-account-ref";
+    private static final String MIGRATIONS = "migrations";
+    private static final List<String> DROPPED_FIELDS = List.of("email", "password", "role");
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderAccountMigrationProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.isEnabled()) {
+            start();
+        }
+    }
+
+    // Runs in the background, returns false when a run is already in progress on this instance
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                migrate();
+            } catch (RuntimeException e) {
+                log.error("Order account migration stopped, it resumes from the last checkpoint on the next start", e);
+            } finally {
+                running.set(false);
+            }
+        }, "order-account-ref-migration");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public Document status() {
+        Document checkpoint = checkpoint();
+        checkpoint.put("running", running.get());
+        return checkpoint;
+    }
+
+    private void migrate() {
+        Document checkpoint = checkpoint();
+        if (checkpoint.get("completedAt") != null) {
+            log.info("Order account migration already completed at {}", checkpoint.get("completedAt"));
+            return;
+        }
+        if (checkpoint.get("readMillisBefore") == null) {
+            checkpoint.put("readMillisBefore", timeSampleRead());
+            checkpoint.put("startedAt", new Date());
+            save(checkpoint);
+        }
+
+        MongoCollection<Document> orders = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Order.class));
+        Codec<Document> codec = orders.getCodecRegistry().get(Document.class);
+        Object lastId = checkpoint.get("lastId");
+        long scanned = checkpoint.get("scanned", 0L);
+        long migrated = checkpoint.get("migrated", 0L);
+        long bytesBefore = checkpoint.get("bytesBefore", 0L);
+        long bytesAfter = checkpoint.get("bytesAfter", 0L);
+
+        while (true) {
+            Bson filter = lastId == null ? new Document() : Filters.gt("_id", lastId);
+            List<Document> batch = orders.find(filter)
+                    .sort(Sorts.ascending("_id"))
+                    .limit(properties.getBatchSize())
+                    .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<WriteModel<Document>> updates = new ArrayList<>();
+            for (Document order : batch) {
+                if (!(order.get("account") instanceof Document account)
+                        || DROPPED_FIELDS.stream().noneMatch(account::containsKey)) {
+                    continue;
+                }
+                Document compactAccount = new Document(account);
+                DROPPED_FIELDS.forEach(compactAccount::remove);
+                Document compactOrder = new Document(order);
+                compactOrder.put("account", compactAccount);
+                bytesBefore += bsonSize(order, codec);
+                bytesAfter += bsonSize(compactOrder, codec);
+                migrated++;
+                // $unset is idempotent and leaves concurrent changes to other fields alone
+                updates.add(new UpdateOneModel<>(Filters.eq("_id", order.get("_id")),
+                        Updates.combine(DROPPED_FIELDS.stream().map(field -> Updates.unset("account." + field)).toList())));
+            }
+            if (!updates.isEmpty()) {
+                orders.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            }
+            lastId = batch.get(batch.size() - 1).get("_id");
+            scanned += batch.size();
+            checkpoint.append("lastId", lastId)
+                    .append("scanned", scanned)
+                    .append("migrated", migrated)
+                    .append("bytesBefore", bytesBefore)
+                    .append("bytesAfter", bytesAfter);
+            save(checkpoint);
+            pause();
+        }
+
+        long readMillisAfter = timeSampleRead();
+        checkpoint.append("readMillisAfter", readMillisAfter).append("completedAt", new Date());
+        save(checkpoint);
+        log.info("Order account migration rewrote {} of {} orders: {} -> {} bytes ({} saved, avg {} -> {} bytes per order), "
+                        + "reading {} orders took {} ms before and {} ms after",
+                migrated, scanned, bytesBefore, bytesAfter, bytesBefore - bytesAfter,
+                migrated > 0 ? bytesBefore / migrated : 0, migrated > 0 ? bytesAfter / migrated : 0,
+                properties.getSampleSize(), checkpoint.get("readMillisBefore"), readMillisAfter);
+    }
+
+    // Best of three reads of the first sampleSize orders through the normal entity mapping
+    private long timeSampleRead() {
+        Query sample = new Query().with(Sort.by("_id")).limit(properties.getSampleSize());
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            mongoTemplate.find(sample, Order.class);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+
+    private long bsonSize(Document document, Codec<Document> codec) {
+        return new RawBsonDocument(document, codec).getByteBuffer().remaining();
+    }
+
+    private Document checkpoint() {
+        Document checkpoint = mongoTemplate.getCollection(MIGRATIONS).find(Filters.eq("_id", ID)).first();
+        return checkpoint != null ? checkpoint : new Document("_id", ID);
+    }
+
+    private void save(Document checkpoint) {
+        Document stored = new Document(checkpoint);
+        stored.remove("running");
+        mongoTemplate.getCollection(MIGRATIONS)
+                .replaceOne(Filters.eq("_id", ID), stored, new ReplaceOptions().upsert(true));
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getPause().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Order account migration interrupted", e);
+        }
+    }
+}
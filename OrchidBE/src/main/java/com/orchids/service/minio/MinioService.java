@@ -105,28 +105,53 @@ public class MinioService {
                     RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
             log.info("File uploaded successfully");
 
-            // Presigned URL
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+            return presign(fileName, duration);
+
+        } catch (S3Exception e) {
+            log.error("S3 error during file upload: {} - {}", e.getMessage(), e.awsErrorDetails().errorMessage(), e);
+            throw new RuntimeException("Failed to upload file to MinIO", e);
+        } catch (IOException e) {
+            log.error("IO error during file upload: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to upload file to MinIO", e);
+        }
+    }
+
+    // Used by the bulk import, where images come out of a zip archive instead of a multipart part
+    public String uploadBytesAndGetPresignedUrl(String originalFileName, byte[] content, String contentType) {
+        String fileName = UUID.randomUUID() + "-" + originalFileName;
+
+        try {
+            log.debug("Uploading file {} to bucket {}", fileName, properties.getBucket());
+
+            PutObjectRequest putRequest = PutObjectRequest.builder()
                     .bucket(properties.getBucket())
                     .key(fileName)
+                    .contentType(contentType)
                     .build();
 
-            GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(duration)
-                    .getObjectRequest(getObjectRequest)
-                    .build();
-
-            PresignedGetObjectRequest presignedRequest = presigner.presignGetObject(presignRequest);
-            String url = presignedRequest.url().toString();
-            log.info("Generated presigned URL: {}", url);
-            return url;
+            s3Client.putObject(putRequest, RequestBody.fromBytes(content));
+            return presign(fileName, Duration.ofDays(7));
 
         } catch (S3Exception e) {
             log.error("S3 error during file upload: {} - {}", e.getMessage(), e.awsErrorDetails().errorMessage(), e);
             throw new RuntimeException("Failed to upload file to MinIO", e);
-        } catch (IOException e) {
-            log.error("IO error during file upload: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to upload file to MinIO", e);
         }
     }
+
+    private String presign(String fileName, Duration duration) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(properties.getBucket())
+                .key(fileName)
+                .build();
+
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(duration)
+                .getObjectRequest(getObjectRequest)
+                .build();
+
+        PresignedGetObjectRequest presignedRequest = presigner.presignGetObject(presignRequest);
+        String url = presignedRequest.url().toString();
+        log.info("Generated presigned URL: {}", url);
+        return url;
+    }
 }
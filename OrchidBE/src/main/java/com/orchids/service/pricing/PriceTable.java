@@ -0,0 +1,107 @@
+package com.orchids.service.pricing;
+
+import com.orchids.pojo.Orchid;
+import com.orchids.pojo.OrchidSummary;
+import com.orchids.repository.OrchidRepository;
+import com.orchids.service.OrchidChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Prices of ACTIVE orchids in minor units (cents), kept in sync by OrchidChangedEvent so checkout never
+// reads the catalog. Orchids missing from the table are looked up once and then cached.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PriceTable {
+    public static final int SCALE = 2;
+
+    private final OrchidRepository orchidRepository;
+
+    private final Map<String, Long> prices = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try (Stream<OrchidSummary> orchids = orchidRepository.streamSummariesByStatus("ACTIVE")) {
+            orchids.forEach(orchid -> put(orchid.getOrchidId(), orchid.getPrice()));
+        }
+        log.info("Price table loaded with {} orchids", prices.size());
+    }
+
+    @EventListener
+    public void onOrchidChanged(OrchidChangedEvent event) {
+        if (event.getOrchid() != null) {
+            put(event.getOrchidId(), event.getOrchid().getPrice());
+        } else {
+            prices.remove(event.getOrchidId());
+        }
+    }
+
+    // Prices every line with exact long arithmetic, any orchid that is not for sale fails the whole quote
+    public Quote quote(Map<String, Integer> quantities) {
+        resolveMissing(quantities.keySet());
+        Map<String, Long> unitPrices = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            Long unitPrice = prices.get(line.getKey());
+            if (unitPrice == null) {
+                throw new IllegalArgumentException("Orchid " + line.getKey() + " is not available");
+            }
+            unitPrices.put(line.getKey(), unitPrice);
+            try {
+                total = Math.addExact(total, Math.multiplyExact(unitPrice, (long) line.getValue()));
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Order total is too large");
+            }
+        }
+        return new Quote(unitPrices, total);
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long amount) {
+        return BigDecimal.valueOf(amount, SCALE);
+    }
+
+    // Orchids created on another node or before the table loaded; unknown ids are not cached
+    private void resolveMissing(Iterable<String> orchidIds) {
+        List<String> missing = new ArrayList<>();
+        for (String orchidId : orchidIds) {
+            if (!prices.containsKey(orchidId)) {
+                missing.add(orchidId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (Orchid orchid : orchidRepository.findAllById(missing)) {
+            if ("ACTIVE".equals(orchid.getStatus())) {
+                put(orchid.getOrchidId(), orchid.getPrice());
+            }
+        }
+    }
+
+    private void put(String orchidId, BigDecimal price) {
+        if (price != null) {
+            prices.put(orchidId, toMinorUnits(price));
+        } else {
+            prices.remove(orchidId);
+        }
+    }
+
+    public record Quote(Map<String, Long> unitPrices, long total) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.orchids.service.search;
+
+import com.orchids.dto.OrchidResponse;
+import com.orchids.service.OrchidChangedEvent;
+import com.orchids.service.OrchidService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over orchidName and orchidDescription of ACTIVE orchids
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrchidSearchService {
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MAX_RESULTS = 100;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private final OrchidService orchidService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, OrchidResponse> documents = new HashMap<>();
+    // term -> (orchidId -> weighted term frequency), sorted so the last query term can match by prefix
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> termsByOrchid = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            termsByOrchid.clear();
+            orchidService.streamActiveOrchids(this::addDocument);
+            log.info("Orchid search index built with {} orchids and {} terms", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Before CatalogVersion moves the ETag, so a client holding the new ETag never sees the old results
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    public void onOrchidChanged(OrchidChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(event.getOrchidId());
+            if (event.getOrchid() != null) {
+                addDocument(event.getOrchid());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<OrchidResponse> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        int maxResults = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        lock.readLock().lock();
+        try {
+            Map<String, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                Map<String, Double> termScores = scoreTerm(terms.get(i), prefix);
+                // Every query term has to match, so intersect with the running result
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<String, Double> current = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<String, Double> entry : termScores.entrySet()) {
+                        Double previous = current.get(entry.getKey());
+                        if (previous != null) {
+                            scores.put(entry.getKey(), previous + entry.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<String, Double> ranked = scores;
+            return ranked.keySet().stream()
+                    .sorted(Comparator.comparing((String id) -> ranked.get(id)).reversed()
+                            .thenComparing(id -> documents.get(id).getOrchidName(),
+                                    Comparator.nullsLast(Comparator.<String>naturalOrder())))
+                    .limit(maxResults)
+                    .map(documents::get)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // tf-idf over the weighted frequencies; the last term also matches as a prefix for type-ahead
+    private Map<String, Double> scoreTerm(String term, boolean prefix) {
+        Map<String, Double> scores = new HashMap<>();
+        Map<String, Map<String, Integer>> matches = prefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+        for (Map.Entry<String, Map<String, Integer>> match : matches.entrySet()) {
+            Map<String, Integer> frequencies = match.getValue();
+            double idf = Math.log(1.0 + (double) documents.size() / frequencies.size());
+            // Exact matches rank above completions of the same prefix
+            double boost = match.getKey().equals(term) ? 1.0 : 0.5;
+            for (Map.Entry<String, Integer> posting : frequencies.entrySet()) {
+                scores.merge(posting.getKey(), posting.getValue() * idf * boost, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void addDocument(OrchidResponse orchid) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : tokenize(orchid.getOrchidName())) {
+            frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(orchid.getOrchidDescription())) {
+            frequencies.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        documents.put(orchid.getOrchidId(), orchid);
+        termsByOrchid.put(orchid.getOrchidId(), new HashSet<>(frequencies.keySet()));
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(orchid.getOrchidId(), frequency));
+    }
+
+    private void removeDocument(String orchidId) {
+        documents.remove(orchidId);
+        Set<String> terms = termsByOrchid.remove(orchidId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<String, Integer> frequencies = postings.get(term);
+            if (frequencies != null) {
+                frequencies.remove(orchidId);
+                if (frequencies.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    // Lowercases, strips accents (so "lan hồ điệp" matches "lan ho diep") and splits on anything non-alphanumeric
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text.toLowerCase(Locale.ROOT).replace('đ', 'd'), Normalizer.Form.NFD);
+        normalized = DIACRITICS.matcher(normalized).replaceAll("");
+        List<String> terms = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(normalized)) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,8 @@
+package com.orchids.service.stock;
+
+// Extends IllegalArgumentException so checkout reports it as a 400 like any other unavailable line
+public class OutOfStockException extends IllegalArgumentException {
+    public OutOfStockException(String orchidId) {
+        super("Orchid " + orchidId + " is out of stock");
+    }
+}
@@ -0,0 +1,197 @@
+package com.orchids.service.stock;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.mongodb.bulk.BulkWriteResult;
+import com.orchids.config.StockProperties;
+import com.orchids.dto.StockResponse;
+import com.orchids.pojo.OrchidStock;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Checkout reserves units from striped in-memory counters instead of a per-order $inc on a hot document.
+// Sold units are written back to orchid_stock in batches with conditional decrements, reservations that are
+// never committed return to stock after orders.stock.reservation-ttl. Like the memory idempotency store this
+// assumes one node owns checkout; orchid_stock is only ever decremented by what was sold.
+@Slf4j
+@Service
+public class StockService {
+    private static final StockCounter UNTRACKED = new StockCounter(false, 0, 1);
+
+    private final MongoTemplate mongoTemplate;
+    private final StockProperties properties;
+    private final Map<String, StockCounter> counters = new ConcurrentHashMap<>();
+    private final Cache<String, List<Hold>> reservations;
+
+    public StockService(MongoTemplate mongoTemplate, StockProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.reservations = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getReservationTtl())
+                .scheduler(Scheduler.systemScheduler())
+                .<String, List<Hold>>removalListener((reservationId, holds, cause) -> {
+                    if (cause == RemovalCause.EXPIRED && holds != null) {
+                        log.warn("Stock reservation {} expired without an order, returning it", reservationId);
+                        holds.forEach(Hold::release);
+                    }
+                })
+                .build();
+    }
+
+    // Holds every line or none; orchids without stock tracking are not limited
+    public void reserve(String reservationId, Map<String, Integer> quantities) {
+        List<Hold> holds = new ArrayList<>(quantities.size());
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            StockCounter counter = counter(line.getKey());
+            if (!counter.tracked) {
+                continue;
+            }
+            if (!counter.available.tryAcquire(line.getValue())) {
+                holds.forEach(Hold::release);
+                throw new OutOfStockException(line.getKey());
+            }
+            counter.reserved.addAndGet(line.getValue());
+            holds.add(new Hold(counter, line.getValue()));
+        }
+        if (!holds.isEmpty()) {
+            reservations.put(reservationId, holds);
+        }
+    }
+
+    // The order was written, its units are sold and wait for the next flush
+    public void commit(String reservationId) {
+        List<Hold> holds = reservations.asMap().remove(reservationId);
+        if (holds != null) {
+            holds.forEach(Hold::sell);
+        }
+    }
+
+    // The order was not written, its units go back on sale
+    public void release(String reservationId) {
+        List<Hold> holds = reservations.asMap().remove(reservationId);
+        if (holds != null) {
+            holds.forEach(Hold::release);
+        }
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public StockResponse getStock(String orchidId) {
+        StockCounter counter = counter(orchidId);
+        if (!counter.tracked) {
+            return new StockResponse(orchidId, false, null, null);
+        }
+        return new StockResponse(orchidId, true, counter.available.sum(), counter.reserved.get());
+    }
+
+    // Restocks with a positive quantity or writes off unreserved units with a negative one.
+    // The first adjustment of an orchid starts tracking it.
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public StockResponse adjustStock(String orchidId, long quantity) {
+        counters.compute(orchidId, (id, counter) -> {
+            if (counter != null && counter.tracked) {
+                if (quantity < 0 && !counter.available.tryAcquire(-quantity)) {
+                    throw new IllegalArgumentException("Only " + counter.available.sum() + " unreserved units to remove");
+                }
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                        new Update().inc("available", quantity), OrchidStock.class);
+                counter.available.add(quantity);
+                return counter;
+            }
+            // Not loaded or not tracked yet, the database decides and the counter is loaded on next use
+            Query query = Query.query(Criteria.where("_id").is(id));
+            if (quantity < 0) {
+                query.addCriteria(Criteria.where("available").gte(-quantity));
+            }
+            OrchidStock updated = mongoTemplate.findAndModify(query, new Update().inc("available", quantity),
+                    FindAndModifyOptions.options().upsert(quantity >= 0).returnNew(true), OrchidStock.class);
+            if (updated == null) {
+                throw new IllegalArgumentException("Not enough stock to remove " + -quantity + " units");
+            }
+            return null;
+        });
+        return getStock(orchidId);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stock.flush-interval:1s}")
+    public void flush() {
+        List<Map.Entry<String, Long>> sold = new ArrayList<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrchidStock.class);
+        counters.forEach((orchidId, counter) -> {
+            long units = counter.sold.getAndSet(0);
+            if (units > 0) {
+                sold.add(Map.entry(orchidId, units));
+                // Conditional so a flush can never take orchid_stock below zero
+                bulk.updateOne(Query.query(Criteria.where("_id").is(orchidId).and("available").gte(units)),
+                        new Update().inc("available", -units));
+            }
+        });
+        if (sold.isEmpty()) {
+            return;
+        }
+        try {
+            BulkWriteResult result = bulk.execute();
+            if (result.getMatchedCount() < sold.size()) {
+                log.error("Stock flush matched {} of {} orchids, orchid_stock was lowered outside checkout: {}",
+                        result.getMatchedCount(), sold.size(), sold);
+            }
+        } catch (DataAccessException e) {
+            // Kept for the next flush rather than lost
+            log.error("Stock flush of {} orchids failed, retrying on the next run", sold.size(), e);
+            sold.forEach(entry -> counters.get(entry.getKey()).sold.addAndGet(entry.getValue()));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private StockCounter counter(String orchidId) {
+        return counters.computeIfAbsent(orchidId, id -> {
+            OrchidStock stock = mongoTemplate.findById(id, OrchidStock.class);
+            return stock != null ? new StockCounter(true, stock.getAvailable(), properties.getStripes()) : UNTRACKED;
+        });
+    }
+
+    private static class StockCounter {
+        private final boolean tracked;
+        private final StripedCounter available;
+        private final AtomicLong reserved = new AtomicLong();
+        private final AtomicLong sold = new AtomicLong();
+
+        private StockCounter(boolean tracked, long available, int stripes) {
+            this.tracked = tracked;
+            this.available = new StripedCounter(stripes, available);
+        }
+    }
+
+    private record Hold(StockCounter counter, long quantity) {
+        private void sell() {
+            counter.reserved.addAndGet(-quantity);
+            counter.sold.addAndGet(quantity);
+        }
+
+        private void release() {
+            counter.reserved.addAndGet(-quantity);
+            counter.available.add(quantity);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.orchids.service.stock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Non-negative counter spread over several slots so concurrent buyers of one orchid rarely CAS the same slot.
+// Slots sit a cache line apart to avoid false sharing between neighbours.
+class StripedCounter {
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray slots;
+
+    StripedCounter(int stripes, long initial) {
+        this.stripes = Math.max(1, stripes);
+        this.slots = new AtomicLongArray(this.stripes * PADDING);
+        add(Math.max(0, initial));
+    }
+
+    // Takes quantity or nothing; never lets a slot go below zero
+    boolean tryAcquire(long quantity) {
+        if (quantity <= 0 || take(quantity)) {
+            return true;
+        }
+        // Two buyers holding partial takes can both fail while enough remains overall, so retry one at a time.
+        // A failed take puts its units back before its owner gets here, so the loop ends once stock is really short.
+        if (sum() < quantity) {
+            return false;
+        }
+        synchronized (this) {
+            while (sum() >= quantity) {
+                if (take(quantity)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean take(long quantity) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        long[] taken = new long[stripes];
+        long remaining = quantity;
+        for (int i = 0; i < stripes && remaining > 0; i++) {
+            int stripe = (start + i) % stripes;
+            int slot = stripe * PADDING;
+            long current;
+            long take;
+            do {
+                current = slots.get(slot);
+                take = Math.min(current, remaining);
+            } while (take > 0 && !slots.compareAndSet(slot, current, current - take));
+            taken[stripe] = take;
+            remaining -= take;
+        }
+        if (remaining > 0) {
+            // Not enough across all slots, put back what was taken
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                if (taken[stripe] > 0) {
+                    slots.addAndGet(stripe * PADDING, taken[stripe]);
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    void add(long quantity) {
+        if (quantity > 0) {
+            int stripe = ThreadLocalRandom.current().nextInt(stripes);
+            slots.addAndGet(stripe * PADDING, quantity);
+        }
+    }
+
+    // Approximate while writers are active, exact once they are quiet
+    long sum() {
+        long sum = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            sum += slots.get(stripe * PADDING);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,37 @@
+package com.orchids.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// A read that loaded the old value before a write evicted it must not put that value back
+class CatalogCacheTests {
+    private final CatalogCache cache = new CatalogCache("orchid", Caffeine.newBuilder().build(), false);
+
+    @Test
+    void loadRacingAnEvictionIsReturnedButNotCached() {
+        // Any eviction counts, evicting the key being loaded from its own loader is a recursive update
+        String value = cache.get("o1", () -> {
+            cache.evict("o2");
+            return "old";
+        });
+
+        assertEquals("old", value);
+        assertNull(cache.get("o1"));
+        assertEquals("new", cache.get("o1", () -> "new"));
+        assertEquals("new", cache.get("o1", String.class));
+    }
+
+    @Test
+    void putIsDroppedWhenAnEvictionRanSinceTheStamp() {
+        long stamp = cache.evictions();
+        cache.evict("o2");
+        cache.putIfNotEvictedSince("o1", "old", stamp);
+        assertNull(cache.get("o1"));
+
+        cache.putIfNotEvictedSince("o1", "new", cache.evictions());
+        assertEquals("new", cache.get("o1", String.class));
+    }
+}
@@ -0,0 +1,273 @@
+package com.orchids.config;
+
+import com.orchids.controller.AnalyticsController;
+import com.orchids.controller.CatalogResponses;
+import com.orchids.controller.ExportController;
+import com.orchids.controller.MigrationController;
+import com.orchids.controller.OrchidController;
+import com.orchids.controller.OrderController;
+import com.orchids.dto.AccountResponse;
+import com.orchids.dto.OrchidResponse;
+import com.orchids.dto.OrderIntakeResponse;
+import com.orchids.pojo.Account;
+import com.orchids.pojo.Role;
+import com.orchids.repository.AccountRepository;
+import com.orchids.repository.RoleRepository;
+import com.orchids.security.JwtAuthenticationFilter;
+import com.orchids.security.JwtUtil;
+import com.orchids.security.VerifiedTokenCache;
+import com.orchids.service.AccountService;
+import com.orchids.service.AnalyticsService;
+import com.orchids.service.OrchidImportService;
+import com.orchids.service.OrchidService;
+import com.orchids.service.OrderService;
+import com.orchids.service.events.OrderEventBroadcaster;
+import com.orchids.service.facet.OrchidFacetService;
+import com.orchids.service.idempotency.IdempotencyStore;
+import com.orchids.service.intake.OrderIntakeService;
+import com.orchids.service.migration.OrderAccountRefMigration;
+import com.orchids.service.search.OrchidSearchService;
+import com.orchids.service.stock.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Admin endpoints are gated by URL in SecurityConfig, the service-level @PreAuthorize is not enforced
+@WebMvcTest
+@ContextConfiguration(classes = { SecurityConfig.class, JwtAuthenticationFilter.class, JwtUtil.class })
+@Import({ ExportController.class, MigrationController.class, AnalyticsController.class, OrchidController.class,
+        OrderController.class })
+class SecurityConfigTests {
+    private static final String MIGRATION = "/api/admin/migrations/order-account-ref";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private VerifiedTokenCache tokenCache;
+    @MockitoBean
+    private AccountRepository accountRepository;
+    @MockitoBean
+    private RoleRepository roleRepository;
+    @MockitoBean
+    private OrchidService orchidService;
+    @MockitoBean
+    private OrderService orderService;
+    @MockitoBean
+    private AccountService accountService;
+    @MockitoBean
+    private OrderAccountRefMigration orderAccountRefMigration;
+    @MockitoBean
+    private AnalyticsService analyticsService;
+    @MockitoBean
+    private OrchidImportService orchidImportService;
+    @MockitoBean
+    private OrchidSearchService orchidSearchService;
+    @MockitoBean
+    private OrchidFacetService orchidFacetService;
+    @MockitoBean
+    private StockService stockService;
+    @MockitoBean
+    private CatalogResponses catalogResponses;
+    @MockitoBean
+    private OrderIntakeService orderIntakeService;
+    @MockitoBean
+    private OrderEventBroadcaster orderEventBroadcaster;
+    @MockitoBean
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void verifyWithoutCaching() {
+        when(tokenCache.getOrVerify(anyString(), any(Function.class)))
+                .thenAnswer(invocation -> ((Function<String, ?>) invocation.getArgument(1))
+                        .apply(invocation.getArgument(0)));
+    }
+
+    @Test
+    void userTokenCannotExport() throws Exception {
+        for (String export : new String[] { "orchids", "orders", "accounts" }) {
+            mockMvc.perform(get("/api/admin/export/" + export).header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                    .andExpect(status().isForbidden());
+        }
+        verifyNoInteractions(orchidService, orderService, accountService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void adminTokenCanExport() throws Exception {
+        AccountResponse account = new AccountResponse();
+        account.setAccountName("admin");
+        doAnswer(invocation -> {
+            ((Consumer<AccountResponse>) invocation.getArgument(0)).accept(account);
+            return null;
+        }).when(accountService).streamAllAccounts(any());
+
+        for (boolean gzip : new boolean[] { false, true }) {
+            MvcResult started = mockMvc.perform(get("/api/admin/export/accounts").param("gzip", Boolean.toString(gzip))
+                            .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_ADMIN")))
+                    .andExpect(status().isOk())
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            MvcResult completed = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            byte[] body = completed.getResponse().getContentAsByteArray();
+            String ndjson = new String(gzip ? new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes() : body,
+                    StandardCharsets.UTF_8);
+            assertTrue(ndjson.startsWith("{") && ndjson.contains("\"accountName\":\"admin\"") && ndjson.endsWith("\n"));
+        }
+    }
+
+    @Test
+    void userTokenCannotStartMigration() throws Exception {
+        mockMvc.perform(post(MIGRATION).header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(MIGRATION).header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(orderAccountRefMigration);
+    }
+
+    @Test
+    void adminTokenCanStartMigration() throws Exception {
+        when(orderAccountRefMigration.start()).thenReturn(true);
+        mockMvc.perform(post(MIGRATION).header(HttpHeaders.AUTHORIZATION, bearer("ROLE_ADMIN")))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void userTokenCannotReadOrRebuildAnalytics() throws Exception {
+        mockMvc.perform(post("/api/analytics/rebuild").header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/analytics/revenue").param("from", "2025-01-01").param("to", "2025-01-31")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/analytics/top").param("from", "2025-01-01").param("to", "2025-01-31")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(analyticsService);
+    }
+
+    @Test
+    void adminTokenCanRebuildAnalytics() throws Exception {
+        mockMvc.perform(post("/api/analytics/rebuild").header(HttpHeaders.AUTHORIZATION, bearer("ROLE_ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void userTokenCannotImportOrchids() throws Exception {
+        mockMvc.perform(multipart("/api/orchids/import")
+                        .file(new MockMultipartFile("file", "orchids.csv", "text/csv", new byte[] { 'x' }))
+                        .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(orchidImportService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamedCatalogCompletesThroughTheSecurityChain() throws Exception {
+        when(catalogResponses.conditional(any(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        OrchidResponse orchid = new OrchidResponse();
+        orchid.setOrchidId("o1");
+        doAnswer(invocation -> {
+            ((Consumer<OrchidResponse>) invocation.getArgument(0)).accept(orchid);
+            return null;
+        }).when(orchidService).streamAllOrchids(any());
+
+        MvcResult started = mockMvc.perform(get("/api/orchids").param("stream", "true")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"orchidId\": \"o1\"}]"));
+    }
+
+    @Test
+    void submittedOrderStatusCompletesThroughTheSecurityChain() throws Exception {
+        when(orderIntakeService.status(eq("o1"), eq("role_user-account"), any())).thenReturn(Optional.of(
+                CompletableFuture.completedFuture(new OrderIntakeResponse("o1", "CREATED", null))));
+
+        MvcResult started = mockMvc.perform(get("/api/orders/async/o1")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"orderId\": \"o1\", \"status\": \"CREATED\"}"));
+    }
+
+    @Test
+    void orderEventStreamCompletesThroughTheSecurityChain() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(orderEventBroadcaster.subscribe("role_user-account")).thenReturn(emitter);
+
+        MvcResult started = mockMvc.perform(get("/api/orders/events")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().comment("heartbeat"));
+        emitter.complete();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+        assertTrue(started.getResponse().getContentAsString().contains(":heartbeat"));
+    }
+
+    @Test
+    void userTokenCannotReadOrAdjustStock() throws Exception {
+        mockMvc.perform(get("/api/orchids/o1/stock").header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/orchids/o1/stock").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\": 5}")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(stockService);
+    }
+
+    private String bearer(String roleName) {
+        Role role = new Role();
+        role.setRoleName(roleName);
+        Account account = new Account();
+        account.setAccountName(roleName.toLowerCase() + "-account");
+        account.setRole(role);
+        return "Bearer " + jwtUtil.generateToken(account);
+    }
+}
@@ -0,0 +1,70 @@
+package com.orchids.controller;
+
+import com.orchids.security.JwtUtil;
+import com.orchids.security.PasswordHashingBusyException;
+import com.orchids.security.VerifiedTokenCache;
+import com.orchids.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A saturated hashing pool answers 503 with Retry-After instead of the endpoint's usual error status
+@WebMvcTest
+@AutoConfigureMockMvc(addFilters = false)
+@ContextConfiguration(classes = AccountController.class)
+class AccountControllerTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AccountService accountService;
+    @MockitoBean
+    private JwtUtil jwtUtil;
+    @MockitoBean
+    private VerifiedTokenCache tokenCache;
+
+    @Test
+    void busyHashingPoolRejectsLoginWith503() throws Exception {
+        when(accountService.validateLogin(anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new PasswordHashingBusyException()));
+
+        perform("/api/accounts/login", "{\"username\": \"admin\", \"password\": \"secret\"}");
+    }
+
+    @Test
+    void busyHashingPoolRejectsRegistrationWith503() throws Exception {
+        when(accountService.registerAccount(any()))
+                .thenReturn(CompletableFuture.failedFuture(new PasswordHashingBusyException()));
+
+        perform("/api/accounts/register", "{\"accountName\": \"new\", \"password\": \"secret\"}");
+    }
+
+    private void perform(String path, String body) throws Exception {
+        MvcResult started = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.error").exists());
+    }
+}
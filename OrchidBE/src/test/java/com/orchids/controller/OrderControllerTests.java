@@ -0,0 +1,75 @@
+package com.orchids.controller;
+
+import com.orchids.dto.CursorPage;
+import com.orchids.repository.OrderFilter;
+import com.orchids.security.JwtUtil;
+import com.orchids.security.VerifiedTokenCache;
+import com.orchids.service.OrderService;
+import com.orchids.service.events.OrderEventBroadcaster;
+import com.orchids.service.idempotency.IdempotencyKeyReuseException;
+import com.orchids.service.idempotency.IdempotencyStore;
+import com.orchids.service.intake.OrderIntakeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest
+@AutoConfigureMockMvc(addFilters = false)
+@ContextConfiguration(classes = OrderController.class)
+class OrderControllerTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OrderService orderService;
+    @MockitoBean
+    private OrderIntakeService orderIntakeService;
+    @MockitoBean
+    private OrderEventBroadcaster orderEventBroadcaster;
+    @MockitoBean
+    private IdempotencyStore idempotencyStore;
+    @MockitoBean
+    private JwtUtil jwtUtil;
+    @MockitoBean
+    private VerifiedTokenCache tokenCache;
+
+    // The admin listing is always paginated, the full dump lives in the streaming export
+    @Test
+    void listingWithoutParametersReturnsTheNewestFirstPage() throws Exception {
+        when(orderService.getOrdersPage(any(OrderFilter.class), eq(Sort.Direction.DESC), isNull(), isNull(), eq(20),
+                eq(false))).thenReturn(new CursorPage<>(List.of(), "next-cursor"));
+
+        mockMvc.perform(get("/api/orders"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
+    @Test
+    void idempotencyKeyReusedForADifferentBodyIsRejectedWith422() throws Exception {
+        when(idempotencyStore.execute(anyString(), anyString(), any())).thenThrow(new IdempotencyKeyReuseException());
+
+        mockMvc.perform(post("/api/orders").header(OrderController.IDEMPOTENCY_KEY, "k1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"orchidId\": \"o1\", \"quantity\": 1}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").exists());
+    }
+}
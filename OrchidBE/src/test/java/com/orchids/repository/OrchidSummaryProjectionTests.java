@@ -0,0 +1,95 @@
+package com.orchids.repository;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.orchids.pojo.OrchidSummary;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Runs the real OrchidRepository query methods against a stubbed driver and checks what they ask Mongo for
+class OrchidSummaryProjectionTests {
+
+    private final MongoDatabaseFactory databaseFactory = mock(MongoDatabaseFactory.class);
+    private final MongoDatabase database = mock(MongoDatabase.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> orchids = mock(MongoCollection.class);
+    @SuppressWarnings("unchecked")
+    private final FindIterable<Document> found = mock(FindIterable.class, RETURNS_SELF);
+    @SuppressWarnings("unchecked")
+    private final MongoCursor<Document> cursor = mock(MongoCursor.class);
+
+    private OrchidRepository orchidRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(databaseFactory.getExceptionTranslator()).thenReturn(new MongoExceptionTranslator());
+        when(databaseFactory.getMongoDatabase()).thenReturn(database);
+        when(database.getCodecRegistry()).thenReturn(MongoClientSettings.getDefaultCodecRegistry());
+        when(orchids.getCodecRegistry()).thenReturn(MongoClientSettings.getDefaultCodecRegistry());
+        when(database.getCollection(anyString(), eq(Document.class))).thenReturn(orchids);
+        when(orchids.find(any(Bson.class), eq(Document.class))).thenReturn(found);
+        when(found.iterator()).thenReturn(cursor);
+        when(found.cursor()).thenReturn(cursor);
+        orchidRepository = new MongoRepositoryFactory(new MongoTemplate(databaseFactory))
+                .getRepository(OrchidRepository.class);
+    }
+
+    @Test
+    void summaryQueriesProjectAwayOrderHistoryAndCategoryReferences() {
+        ObjectId orchidId = new ObjectId();
+        ObjectId categoryId = new ObjectId();
+        // What the server sends back for SUMMARY_FIELDS, the category keeps only its _id
+        Document projected = new Document("_id", orchidId)
+                .append("orchidName", "Phalaenopsis Amabilis")
+                .append("orchidDescription", "A fragrant white moth orchid")
+                .append("orchidUrl", "http://localhost:9000/orchid-bucket/phalaenopsis.jpg")
+                .append("price", "125.50")
+                .append("isNatural", true)
+                .append("category", new Document("_id", categoryId));
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(projected);
+
+        List<OrchidSummary> summaries = orchidRepository.findSummariesByStatus("ACTIVE");
+
+        ArgumentCaptor<Bson> projection = ArgumentCaptor.forClass(Bson.class);
+        verify(found).projection(projection.capture());
+        Document fields = Document.parse(projection.getValue().toBsonDocument().toJson());
+        assertEquals(Document.parse(OrchidRepository.SUMMARY_FIELDS), fields);
+        assertFalse(fields.containsKey("orderDetails"));
+        assertFalse(fields.containsKey("category"));
+        assertFalse(fields.containsKey("category.orchids"));
+
+        assertEquals(1, summaries.size());
+        OrchidSummary summary = summaries.get(0);
+        assertEquals(orchidId.toHexString(), summary.getOrchidId());
+        assertEquals(new BigDecimal("125.50"), summary.getPrice());
+        assertEquals(categoryId.toHexString(), summary.getCategory().getCategoryId());
+        // Nothing left to resolve, a DBRef lookup would open a second collection
+        verify(database, times(1)).getCollection(anyString(), eq(Document.class));
+    }
+}
@@ -0,0 +1,105 @@
+package com.orchids.security;
+
+import com.orchids.config.JwtCacheProperties;
+import com.orchids.pojo.Account;
+import com.orchids.pojo.Role;
+import com.orchids.repository.AccountRepository;
+import com.orchids.repository.RoleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTests {
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final JwtUtil jwtUtil = new JwtUtil(accountRepository, mock(RoleRepository.class));
+    private final VerifiedTokenCache tokenCache = tokenCache(true);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, tokenCache(false));
+    private final JwtAuthenticationFilter cachingFilter = new JwtAuthenticationFilter(jwtUtil, tokenCache);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void singleParseAuthenticatesWithRoleWithoutReadingAccounts() throws Exception {
+        String token = token();
+
+        authenticate(token);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("admin", authentication.getName());
+        assertTrue(authentication.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority())));
+
+        authenticate(cachingFilter, token);
+        authenticate(cachingFilter, token);
+        assertEquals("admin", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenWhenCached() throws Exception {
+        String token = token();
+        authenticate(cachingFilter, token);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+
+        tokenCache.revoke(token, jwtUtil.parseClaims(token).getExpiration());
+
+        authenticate(cachingFilter, token);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void invalidTokenLeavesRequestUnauthenticated() throws Exception {
+        authenticate(token() + "x");
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private String token() {
+        Account account = new Account();
+        account.setAccountName("admin");
+        Role role = new Role();
+        role.setRoleName("ROLE_ADMIN");
+        account.setRole(role);
+        when(accountRepository.findByAccountName("admin")).thenReturn(account);
+        String token = jwtUtil.generateToken("admin");
+        // Issuing a token is the only step allowed to read accounts
+        clearInvocations(accountRepository);
+        return token;
+    }
+
+    private void authenticate(String token) throws Exception {
+        authenticate(filter, token);
+    }
+
+    private void authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+        verifyNoInteractions(accountRepository);
+    }
+
+    private static VerifiedTokenCache tokenCache(boolean enabled) {
+        JwtCacheProperties properties = new JwtCacheProperties();
+        properties.setEnabled(enabled);
+        return new VerifiedTokenCache(properties, mock(RevokedTokenStore.class), new SimpleMeterRegistry());
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orchids");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
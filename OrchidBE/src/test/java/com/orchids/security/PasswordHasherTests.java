@@ -0,0 +1,69 @@
+package com.orchids.security;
+
+import com.orchids.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTests {
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (passwordHasher != null) {
+            passwordHasher.shutdown();
+        }
+    }
+
+    @Test
+    void saturatedPoolRejectsAndQueueDepthIsReported() throws Exception {
+        passwordHasher = blockingHasher(1, 1);
+
+        CompletableFuture<String> running = passwordHasher.encode("first");
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = passwordHasher.encode("second");
+        assertEquals(1.0, meterRegistry.get("password.hash.queue").gauge().value());
+
+        CompletableFuture<String> rejected = passwordHasher.encode("third");
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(PasswordHashingBusyException.class, e.getCause());
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hashed", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.get("password.hash.queue").gauge().value());
+        assertEquals(2, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+    }
+
+    private PasswordHasher blockingHasher(int threads, int queueCapacity) {
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            hashing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hashed";
+        });
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        return new PasswordHasher(passwordEncoder, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,113 @@
+package com.orchids.security;
+
+import com.orchids.config.JwtCacheProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTests {
+    private static final String TOKEN = "header.payload.signature";
+
+    private final RevokedTokenStore revokedTokenStore = mock(RevokedTokenStore.class);
+    private final VerifiedTokenCache tokenCache = new VerifiedTokenCache(new JwtCacheProperties(), revokedTokenStore,
+            new SimpleMeterRegistry());
+    private final Claims claims = Jwts.claims().setSubject("admin")
+            .setExpiration(new Date(System.currentTimeMillis() + 60_000));
+
+    @Test
+    void tokenRevokedBeforeARestartOrOnAnotherNodeIsRejected() {
+        when(revokedTokenStore.isRevoked(hash(TOKEN))).thenReturn(true);
+
+        assertThrows(VerifiedTokenCache.RevokedTokenException.class, () -> tokenCache.getOrVerify(TOKEN, verifier()));
+    }
+
+    @Test
+    void invalidTokensAreRejectedWithoutReadingTheStore() {
+        Function<String, Claims> invalid = token -> {
+            throw new MalformedJwtException("bad token");
+        };
+
+        assertThrows(MalformedJwtException.class, () -> tokenCache.getOrVerify(TOKEN, invalid));
+        verify(revokedTokenStore, never()).isRevoked(anyString());
+    }
+
+    @Test
+    void revocationIsStoredUntilTheTokenExpires() {
+        tokenCache.revoke(TOKEN, claims.getExpiration());
+
+        verify(revokedTokenStore).revoke(hash(TOKEN), claims.getExpiration());
+        assertThrows(VerifiedTokenCache.RevokedTokenException.class, () -> tokenCache.getOrVerify(TOKEN, verifier()));
+    }
+
+    @Test
+    void syncDropsCachedTokensRevokedElsewhere() {
+        assertSame(claims, tokenCache.getOrVerify(TOKEN, verifier()));
+        when(revokedTokenStore.revokedSince(any(Date.class)))
+                .thenReturn(Map.of(hash(TOKEN), claims.getExpiration()));
+
+        tokenCache.syncRevocations();
+
+        assertThrows(VerifiedTokenCache.RevokedTokenException.class, () -> tokenCache.getOrVerify(TOKEN, verifier()));
+        verify(revokedTokenStore, never()).revoke(eq(hash(TOKEN)), any());
+    }
+
+    @Test
+    void onceSyncedVerificationNeverReadsTheStore() {
+        JwtCacheProperties disabled = new JwtCacheProperties();
+        disabled.setEnabled(false);
+        VerifiedTokenCache uncached = new VerifiedTokenCache(disabled, revokedTokenStore, new SimpleMeterRegistry());
+        when(revokedTokenStore.isRevoked(anyString())).thenThrow(new DataAccessResourceFailureException("Mongo down"));
+
+        uncached.syncRevocations();
+
+        assertSame(claims, uncached.getOrVerify(TOKEN, verifier()));
+        assertSame(claims, uncached.getOrVerify(TOKEN, verifier()));
+        verify(revokedTokenStore, never()).isRevoked(anyString());
+    }
+
+    @Test
+    void firstSyncLoadsEveryStoredRevocation() {
+        when(revokedTokenStore.revokedSince(any(Date.class)))
+                .thenReturn(Map.of(hash(TOKEN), claims.getExpiration()));
+
+        tokenCache.syncRevocations();
+
+        verify(revokedTokenStore).revokedSince(argThat(since -> since.getTime() <= 0));
+        assertThrows(VerifiedTokenCache.RevokedTokenException.class, () -> tokenCache.getOrVerify(TOKEN, verifier()));
+        verify(revokedTokenStore, never()).isRevoked(anyString());
+    }
+
+    private Function<String, Claims> verifier() {
+        return token -> claims;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
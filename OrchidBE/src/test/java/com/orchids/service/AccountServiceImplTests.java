@@ -0,0 +1,59 @@
+package com.orchids.service;
+
+import com.orchids.dto.AccountRequest;
+import com.orchids.pojo.Account;
+import com.orchids.pojo.Role;
+import com.orchids.repository.AccountRepository;
+import com.orchids.repository.RoleRepository;
+import com.orchids.security.PasswordHasher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountServiceImplTests {
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final PasswordHasher passwordHasher = mock(PasswordHasher.class);
+    private final ExecutorService hashingPool =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "password-hashing"));
+    private final ExecutorService accountWriteExecutor =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "account-write"));
+    private final AccountServiceImpl accountService =
+            new AccountServiceImpl(accountRepository, roleRepository, passwordHasher, accountWriteExecutor);
+
+    @AfterEach
+    void tearDown() {
+        hashingPool.shutdownNow();
+        accountWriteExecutor.shutdownNow();
+    }
+
+    @Test
+    void registeredAccountIsSavedOffTheHashingPool() throws Exception {
+        Role role = new Role();
+        role.setRoleName("ROLE_USER");
+        when(roleRepository.findByRoleName("ROLE_USER")).thenReturn(Optional.of(role));
+        when(passwordHasher.encode("secret")).thenReturn(CompletableFuture.supplyAsync(() -> "hashed", hashingPool));
+        AtomicReference<String> savedOn = new AtomicReference<>();
+        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> {
+            savedOn.set(Thread.currentThread().getName());
+            return invocation.getArgument(0);
+        });
+        AccountRequest request = new AccountRequest();
+        request.setAccountName("new");
+        request.setPassword("secret");
+
+        assertEquals("new", accountService.registerAccount(request).get(5, TimeUnit.SECONDS).getAccountName());
+        assertEquals("account-write", savedOn.get());
+    }
+}
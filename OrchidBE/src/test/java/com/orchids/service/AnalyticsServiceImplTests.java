@@ -0,0 +1,178 @@
+package com.orchids.service;
+
+import com.orchids.dto.OrchidResponse;
+import com.orchids.pojo.Order;
+import com.orchids.pojo.OrderDetail;
+import com.orchids.pojo.SalesRollup;
+import com.orchids.repository.OrderRepository;
+import com.orchids.repository.SalesRollupRepository;
+import com.orchids.service.archive.OrderArchiveService;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceImplTests {
+    private static final LocalDateTime BOUNDARY = LocalDateTime.of(2025, 6, 1, 0, 0);
+    private static final LocalDateTime PLACED = LocalDateTime.of(2025, 6, 3, 14, 30);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class, RETURNS_SELF);
+    private final SalesRollupRepository salesRollupRepository = mock(SalesRollupRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrchidService orchidService = mock(OrchidService.class);
+    private final OrderArchiveService orderArchiveService = mock(OrderArchiveService.class);
+    private final AnalyticsServiceImpl analyticsService = new AnalyticsServiceImpl(mongoTemplate,
+            salesRollupRepository, orderRepository, orchidService, orderArchiveService);
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SalesRollup.class)).thenReturn(bulk);
+        OrchidResponse orchid = new OrchidResponse();
+        orchid.setOrchidId("o1");
+        orchid.setCategoryId("c1");
+        when(orchidService.findOrchidsByIds(any())).thenReturn(Map.of("o1", orchid));
+    }
+
+    @Test
+    void newOrderIncrementsEveryBucketItTouches() {
+        analyticsService.recordOrderChange(null, order("a", PLACED, "30", line("o1", "15", 2)));
+
+        Map<String, Document> increments = increments();
+        assertEquals(Set.of("DAY|2025-06-03|TOTAL|ALL", "DAY|2025-06-03|CATEGORY|c1", "DAY|2025-06-03|ORCHID|o1",
+                "HOUR|2025-06-03T14|TOTAL|ALL", "HOUR|2025-06-03T14|CATEGORY|c1", "HOUR|2025-06-03T14|ORCHID|o1"),
+                increments.keySet());
+        assertIncrement(increments.get("DAY|2025-06-03|TOTAL|ALL"), "30", 2, 1);
+        assertIncrement(increments.get("HOUR|2025-06-03T14|ORCHID|o1"), "30", 2, 1);
+    }
+
+    @Test
+    void updateAppliesOnlyTheDifference() {
+        Order before = order("a", PLACED, "30", line("o1", "15", 2));
+        Order after = order("a", PLACED, "45", line("o1", "15", 3));
+
+        analyticsService.recordOrderChange(before, after);
+
+        Map<String, Document> increments = increments();
+        assertIncrement(increments.get("DAY|2025-06-03|TOTAL|ALL"), "15", 1, 0);
+        assertIncrement(increments.get("DAY|2025-06-03|CATEGORY|c1"), "15", 1, 0);
+    }
+
+    @Test
+    void statusOnlyUpdateWritesNothing() {
+        Order before = order("a", PLACED, "30", line("o1", "15", 2));
+        Order after = order("a", PLACED, "30", line("o1", "15", 2));
+        after.setOrderStatus("PAID");
+
+        analyticsService.recordOrderChange(before, after);
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+
+    @Test
+    void deleteSubtractsTheOrder() {
+        analyticsService.recordOrderChange(order("a", PLACED, "30", line("o1", "15", 2)), null);
+
+        assertIncrement(increments().get("HOUR|2025-06-03T14|CATEGORY|c1"), "-30", -2, -1);
+    }
+
+    @Test
+    void rollupFailuresNeverReachTheOrderWrite() {
+        Order order = order("a", PLACED, "30", line("o1", "15", 2));
+        when(orchidService.findOrchidsByIds(any())).thenThrow(new DataAccessResourceFailureException("Mongo down"));
+        assertDoesNotThrow(() -> analyticsService.recordOrderChange(null, order));
+
+        doReturn(Map.of()).when(orchidService).findOrchidsByIds(any());
+        when(bulk.execute()).thenThrow(new DataAccessResourceFailureException("Mongo down"));
+        assertDoesNotThrow(() -> analyticsService.recordOrderChange(null, order));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildCountsArchivedOrdersOnce() {
+        Order recent = order("o1", BOUNDARY.plusDays(10), "10");
+        // Archived but not yet removed from orders by an interrupted run
+        Order halfArchived = order("o2", BOUNDARY.minusDays(10), "20");
+        Order archived = order("o3", BOUNDARY.minusDays(10), "30");
+        when(orderArchiveService.archiveBoundary()).thenReturn(BOUNDARY);
+        when(orderRepository.streamAll()).thenReturn(Stream.of(recent, halfArchived));
+        doAnswer(invocation -> {
+            Consumer<Order> action = invocation.getArgument(0);
+            action.accept(order("o2", BOUNDARY.minusDays(10), "20"));
+            action.accept(archived);
+            return null;
+        }).when(orderArchiveService).streamAll(any());
+
+        assertEquals(3, analyticsService.rebuildRollups());
+
+        ArgumentCaptor<List<SalesRollup>> rollups = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupRepository).insert(rollups.capture());
+        Map<String, BigDecimal> revenue = rollups.getValue().stream()
+                .filter(rollup -> AnalyticsServiceImpl.DAY.equals(rollup.getGranularity()))
+                .collect(Collectors.toMap(SalesRollup::getBucket, SalesRollup::getRevenue));
+        assertEquals(Map.of("2025-06-11", new BigDecimal("10"), "2025-05-22", new BigDecimal("50")), revenue);
+    }
+
+    private Map<String, Document> increments() {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, atLeastOnce()).upsert(queries.capture(), updates.capture());
+        Map<String, Document> increments = new HashMap<>();
+        for (int i = 0; i < queries.getAllValues().size(); i++) {
+            increments.put(queries.getAllValues().get(i).getQueryObject().getString("_id"),
+                    updates.getAllValues().get(i).getUpdateObject().get("$inc", Document.class));
+        }
+        return increments;
+    }
+
+    private void assertIncrement(Document increment, String revenue, long quantity, int orders) {
+        assertEquals(new BigDecimal(revenue), ((Decimal128) increment.get("revenue")).bigDecimalValue());
+        assertEquals(quantity, ((Number) increment.get("quantity")).longValue());
+        assertEquals(orders, ((Number) increment.get("orders")).intValue());
+    }
+
+    private Order order(String orderId, LocalDateTime orderDate, String total, OrderDetail... lines) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setOrderDate(orderDate);
+        order.setTotalAmount(new BigDecimal(total));
+        order.setOrderDetails(List.of(lines));
+        return order;
+    }
+
+    private OrderDetail line(String orchidId, String price, int quantity) {
+        OrderDetail detail = new OrderDetail();
+        detail.setOrchidId(orchidId);
+        detail.setPrice(new BigDecimal(price));
+        detail.setQuantity(quantity);
+        return detail;
+    }
+}
@@ -0,0 +1,226 @@
+package com.orchids.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.orchids.config.CacheConfig;
+import com.orchids.config.CatalogImportProperties;
+import com.orchids.dto.OrchidImportReport;
+import com.orchids.dto.OrchidResponse;
+import com.orchids.pojo.Category;
+import com.orchids.pojo.Orchid;
+import com.orchids.repository.CategoryRepository;
+import com.orchids.service.minio.MinioService;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrchidImportServiceImplTests {
+    private static final String HEADER = "orchidName,orchidDescription,price,isNatural,categoryId,image\n";
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class, RETURNS_SELF);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final MinioService minioService = mock(MinioService.class);
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ExecutorService uploadExecutor = Executors.newFixedThreadPool(4);
+    private final CatalogImportProperties properties = new CatalogImportProperties();
+    private OrchidImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setCategoryId("c1");
+        category.setCategoryName("Phalaenopsis");
+        category.setStatus("ACTIVE");
+        when(categoryRepository.findAllWithoutOrchids()).thenReturn(List.of(category));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Orchid.class)).thenReturn(bulk);
+        when(minioService.uploadBytesAndGetPresignedUrl(anyString(), any(), any()))
+                .thenAnswer(invocation -> "http://minio/" + invocation.getArgument(0));
+        importService = new OrchidImportServiceImpl(mongoTemplate, categoryRepository, minioService, cacheManager,
+                eventPublisher, new ObjectMapper(), properties, uploadExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadExecutor.shutdownNow();
+    }
+
+    @Test
+    void invalidRowsAreReportedAndOnlyValidRowsInserted() {
+        String csv = "\uFEFF" + HEADER
+                + "Moth orchid,White blooms,12.50,true,c1,https://cdn.example/moth.jpg\n"
+                + ",White blooms,-1,maybe,c1,\n"
+                + "Lady slipper,Pouch shaped,20,false,unknown,\n"
+                + "Dancing lady,Yellow sprays,15,true,c1,missing.jpg\n"
+                + "Too,few,columns\n";
+
+        OrchidImportReport report = importService.importOrchids(csv(csv), null);
+
+        assertEquals(5, report.getTotal());
+        assertEquals(1, report.getImported());
+        assertEquals(4, report.getFailed());
+        Map<Integer, OrchidImportReport.RowResult> rows = byRow(report);
+        assertEquals("IMPORTED", rows.get(1).getStatus());
+        assertEquals("Orchid name must not be blank; Price must be greater than 0; isNatural must be true or false",
+                rows.get(2).getError());
+        assertEquals("Category not found", rows.get(3).getError());
+        assertEquals("Image missing.jpg not found in the images archive", rows.get(4).getError());
+        assertEquals("Expected 6 columns but found 3", rows.get(5).getError());
+
+        List<Orchid> inserted = insertedOrchids();
+        assertEquals(1, inserted.size());
+        assertEquals(rows.get(1).getOrchidId(), inserted.get(0).getOrchidId());
+        assertEquals("https://cdn.example/moth.jpg", inserted.get(0).getOrchidUrl());
+        assertEquals("Phalaenopsis", inserted.get(0).getCategory().getCategoryName());
+    }
+
+    @Test
+    void sharedImagesAreUploadedOnceAndFailedUploadsFailTheirRows() throws IOException {
+        when(minioService.uploadBytesAndGetPresignedUrl(eq("broken.jpg"), any(), any()))
+                .thenThrow(new RuntimeException("Failed to upload file to MinIO"));
+        String csv = HEADER
+                + "A,First,10,true,c1,moth.jpg\n"
+                + "B,Second,11,true,c1,moth.jpg\n"
+                + "C,Third,12,true,c1,photos/moth.jpg\n"
+                + "D,Fourth,13,true,c1,broken.jpg\n";
+
+        OrchidImportReport report = importService.importOrchids(csv(csv),
+                zip(Map.of("photos/moth.jpg", "moth", "broken.jpg", "broken")));
+
+        assertEquals(3, report.getImported());
+        verify(minioService, times(1)).uploadBytesAndGetPresignedUrl(eq("moth.jpg"), any(), eq("image/jpeg"));
+        verify(minioService, times(1)).uploadBytesAndGetPresignedUrl(eq("photos/moth.jpg"), any(), eq("image/jpeg"));
+        assertEquals("Image upload failed: Failed to upload file to MinIO", byRow(report).get(4).getError());
+        Map<String, String> urls = insertedOrchids().stream()
+                .collect(Collectors.toMap(Orchid::getOrchidName, Orchid::getOrchidUrl));
+        assertEquals(Map.of("A", "http://minio/moth.jpg", "B", "http://minio/moth.jpg",
+                "C", "http://minio/photos/moth.jpg"), urls);
+    }
+
+    @Test
+    void batchFailuresOnlyFailTheRowsTheyHit() {
+        properties.setBatchSize(2);
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1);
+        when(bulk.execute())
+                .thenReturn(mock(BulkWriteResult.class))
+                .thenThrow(new BulkOperationException("Bulk write failed", new MongoBulkWriteException(
+                        mock(BulkWriteResult.class), List.of(duplicate), null, new ServerAddress(), Set.of())))
+                .thenThrow(new DataAccessResourceFailureException("Mongo unavailable"));
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= 5; i++) {
+            csv.append("Orchid ").append(i).append(",Description,10,true,c1,\n");
+        }
+
+        OrchidImportReport report = importService.importOrchids(csv(csv.toString()), null);
+
+        verify(mongoTemplate, times(3)).bulkOps(BulkOperations.BulkMode.UNORDERED, Orchid.class);
+        Map<Integer, OrchidImportReport.RowResult> rows = byRow(report);
+        assertEquals("IMPORTED", rows.get(1).getStatus());
+        assertEquals("IMPORTED", rows.get(2).getStatus());
+        assertEquals("IMPORTED", rows.get(3).getStatus());
+        assertEquals("E11000 duplicate key", rows.get(4).getError());
+        assertEquals("Insert failed: Mongo unavailable", rows.get(5).getError());
+        assertEquals(3, report.getImported());
+        assertEquals(2, report.getFailed());
+    }
+
+    @Test
+    void reportMatchesRowsAndOnlyImportedOrchidsArePublished() {
+        cacheManager.getCache(CacheConfig.ORCHIDS).put(CacheConfig.ALL, List.of());
+        cacheManager.getCache(CacheConfig.ORCHIDS_BY_CATEGORY).put("c1", List.of());
+        String ndjson = "{\"orchidName\":\"Moth\",\"orchidDescription\":\"White\",\"price\":\"9.99\","
+                + "\"isNatural\":\"true\",\"categoryId\":\"c1\"}\n"
+                + "\n"
+                + "{not json}\n"
+                + "[1, 2]\n";
+
+        OrchidImportReport report = importService.importOrchids(
+                new MockMultipartFile("file", "orchids.ndjson", "application/x-ndjson",
+                        ndjson.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals(3, report.getTotal());
+        List<OrchidImportReport.RowResult> rows = report.getRows();
+        assertEquals(List.of(1, 2, 3), rows.stream().map(OrchidImportReport.RowResult::getRow).toList());
+        assertNotNull(rows.get(0).getOrchidId());
+        assertNull(rows.get(0).getError());
+        assertTrue(rows.get(1).getError().startsWith("Malformed JSON"));
+        assertEquals("Each line must be a JSON object", rows.get(2).getError());
+        assertNull(rows.get(2).getOrchidId());
+
+        ArgumentCaptor<OrchidChangedEvent> events = ArgumentCaptor.forClass(OrchidChangedEvent.class);
+        verify(eventPublisher).publishEvent(events.capture());
+        OrchidResponse published = events.getValue().getOrchid();
+        assertEquals(rows.get(0).getOrchidId(), published.getOrchidId());
+        assertEquals("c1", published.getCategoryId());
+        assertNull(cacheManager.getCache(CacheConfig.ORCHIDS).get(CacheConfig.ALL));
+        assertNull(cacheManager.getCache(CacheConfig.ORCHIDS_BY_CATEGORY).get("c1"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Orchid> insertedOrchids() {
+        ArgumentCaptor<List<Orchid>> batches = ArgumentCaptor.forClass(List.class);
+        verify(bulk, atLeastOnce()).insert(batches.capture());
+        return batches.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private Map<Integer, OrchidImportReport.RowResult> byRow(OrchidImportReport report) {
+        return report.getRows().stream()
+                .collect(Collectors.toMap(OrchidImportReport.RowResult::getRow, row -> row));
+    }
+
+    private MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "orchids.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MockMultipartFile zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("images", "images.zip", "application/zip", bytes.toByteArray());
+    }
+}
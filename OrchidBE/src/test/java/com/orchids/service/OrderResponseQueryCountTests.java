@@ -0,0 +1,135 @@
+package com.orchids.service;
+
+import com.orchids.config.OrderListingProperties;
+import com.orchids.dto.CursorPage;
+import com.orchids.dto.OrderDetailResponse;
+import com.orchids.dto.OrderItemResponse;
+import com.orchids.pojo.Order;
+import com.orchids.pojo.OrchidSummary;
+import com.orchids.pojo.OrderDetail;
+import com.orchids.repository.AccountRepository;
+import com.orchids.repository.CategoryRepository;
+import com.orchids.repository.OrchidRepository;
+import com.orchids.repository.OrderFilter;
+import com.orchids.repository.OrderRepository;
+import com.orchids.service.archive.OrderArchiveService;
+import com.orchids.service.minio.MinioService;
+import com.orchids.service.pricing.PriceTable;
+import com.orchids.service.stock.StockService;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+// Counts the Mongo queries behind one page of order responses: the page itself plus at most one orchid $in
+class OrderResponseQueryCountTests {
+
+    private static final int ORDERS = 100;
+    private static final int LINES_PER_ORDER = 5;
+    private static final int DISTINCT_ORCHIDS = 60;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrchidRepository orchidRepository = mock(OrchidRepository.class);
+    private OrderServiceImpl orderService;
+    private List<String> orchidIds;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        OrchidServiceImpl orchidService = new OrchidServiceImpl(orchidRepository, mock(CategoryRepository.class),
+                mock(MinioService.class), cacheManager, mock(ApplicationEventPublisher.class));
+        orderService = new OrderServiceImpl(orderRepository, mock(AccountRepository.class),
+                new PriceTable(orchidRepository), orchidService, mock(AnalyticsService.class), mock(StockService.class),
+                mock(OrderArchiveService.class), cacheManager,
+                new OrderListingProperties(), mock(ApplicationEventPublisher.class));
+
+        orchidIds = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_ORCHIDS; i++) {
+            orchidIds.add(new ObjectId().toHexString());
+        }
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(order(i));
+        }
+        when(orderRepository.findPage(any(), any(), any(), any(), anyLong(), anyInt())).thenReturn(orders);
+        when(orchidRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().map(this::summary).toList();
+        });
+    }
+
+    @Test
+    void pageOfOrdersResolvesAllLinesWithOneOrchidQuery() {
+        CursorPage<OrderItemResponse> page = orderService.getOrdersPage(
+                new OrderFilter(), Sort.Direction.DESC, null, null, ORDERS, false);
+
+        assertEquals(ORDERS, page.getItems().size());
+        for (OrderItemResponse order : page.getItems()) {
+            assertEquals(LINES_PER_ORDER, order.getOrderDetails().size());
+            for (OrderDetailResponse line : order.getOrderDetails()) {
+                assertEquals("Orchid " + line.getProductId(), line.getOrchidName());
+            }
+        }
+        verify(orderRepository, times(1)).findPage(any(), any(), any(), any(), anyLong(), anyInt());
+        verify(orchidRepository, times(1)).findSummariesByIdIn(anyCollection());
+        verifyNoMoreInteractions(orderRepository, orchidRepository);
+    }
+
+    @Test
+    void secondPageIsServedFromTheOrchidCache() {
+        orderService.getOrdersPage(new OrderFilter(), Sort.Direction.DESC, null, null, ORDERS, false);
+        orderService.getOrdersPage(new OrderFilter(), Sort.Direction.DESC, null, null, ORDERS, false);
+
+        verify(orderRepository, times(2)).findPage(any(), any(), any(), any(), anyLong(), anyInt());
+        verify(orchidRepository, times(1)).findSummariesByIdIn(anyCollection());
+        verifyNoMoreInteractions(orderRepository, orchidRepository);
+    }
+
+    private Order order(int index) {
+        Order order = new Order();
+        order.setOrderId(new ObjectId().toHexString());
+        order.setOrderDate(LocalDateTime.now().minusMinutes(index));
+        order.setOrderStatus("NEW");
+        order.setTotalAmount(BigDecimal.TEN);
+        List<OrderDetail> details = new ArrayList<>();
+        for (int line = 0; line < LINES_PER_ORDER; line++) {
+            OrderDetail detail = new OrderDetail();
+            detail.setOrderDetailId(new ObjectId().toHexString());
+            detail.setOrderId(order.getOrderId());
+            detail.setOrchidId(orchidIds.get((index * LINES_PER_ORDER + line) % DISTINCT_ORCHIDS));
+            detail.setQuantity(1);
+            detail.setPrice(BigDecimal.valueOf(2));
+            details.add(detail);
+        }
+        order.setOrderDetails(details);
+        return order;
+    }
+
+    private OrchidSummary summary(String orchidId) {
+        OrchidSummary summary = new OrchidSummary();
+        summary.setOrchidId(orchidId);
+        summary.setOrchidName("Orchid " + orchidId);
+        summary.setPrice(BigDecimal.valueOf(2));
+        summary.setIsNatural(true);
+        return summary;
+    }
+}
@@ -0,0 +1,71 @@
+package com.orchids.service.archive;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoDatabase;
+import com.orchids.config.OrderArchiveProperties;
+import com.orchids.pojo.ArchivedOrder;
+import com.orchids.pojo.Order;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// An order updated between the archive read and the delete must survive in orders
+class OrderArchiveServiceTests {
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations archive = mock(BulkOperations.class, RETURNS_SELF);
+    private final BulkOperations removals = mock(BulkOperations.class, RETURNS_SELF);
+    private final OrderArchiveProperties properties = new OrderArchiveProperties();
+    private final OrderArchiveService archiveService = new OrderArchiveService(mongoTemplate, properties);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ordersAreOnlyRemovedWhileUnchangedSinceTheyWereRead() {
+        properties.setPause(Duration.ZERO);
+        Document stored = new Document("_id", "o1")
+                .append("orderDate", LocalDateTime.now().minusYears(2))
+                .append("orderStatus", "PENDING");
+        Order order = new Order();
+        order.setOrderId("o1");
+        MongoConverter converter = mock(MongoConverter.class);
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(mongoTemplate.getCollectionName(Order.class)).thenReturn("orders");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("orders"))).thenReturn(List.of(stored));
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(converter.read(Order.class, stored)).thenReturn(order);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.getCodecRegistry()).thenReturn(MongoClientSettings.getDefaultCodecRegistry());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedOrder.class)).thenReturn(archive);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "orders")).thenReturn(removals);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(removals.execute()).thenReturn(result);
+
+        archiveService.archiveOldOrders();
+
+        ArgumentCaptor<Query> removal = ArgumentCaptor.forClass(Query.class);
+        verify(removals).remove(removal.capture());
+        Document condition = removal.getValue().getQueryObject();
+        assertEquals("o1", condition.get("_id"));
+        List<Object> comparison = (List<Object>) condition.get("$expr", Document.class).get("$eq");
+        assertEquals("$$ROOT", comparison.get(0));
+        assertEquals(new Document("$literal", stored), comparison.get(1));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq("orders"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.orchids.service.events;
+
+import com.orchids.config.OrderEventsProperties;
+import com.orchids.dto.OrderStatusEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderEventBroadcasterTests {
+    private final CountDownLatch unstall = new CountDownLatch(1);
+    private final Deque<SseEmitter> emitters = new ArrayDeque<>();
+    private final OrderEventsProperties properties = new OrderEventsProperties();
+    private final OrderEventBroadcaster broadcaster = new OrderEventBroadcaster(properties) {
+        @Override
+        SseEmitter createEmitter() {
+            return emitters.removeFirst();
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        unstall.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void stalledClientsDoNotHoldUpOthersAndAreDroppedAfterTheSendTimeout() throws Exception {
+        properties.setSendTimeout(Duration.ofMillis(1));
+        // More stalled clients than the pool has core threads
+        int stalled = Runtime.getRuntime().availableProcessors() + 2;
+        CountDownLatch stalledSends = new CountDownLatch(stalled);
+        for (int i = 0; i < stalled; i++) {
+            emitters.add(new StallingEmitter(stalledSends));
+            broadcaster.subscribe(null);
+        }
+        CountDownLatch delivered = new CountDownLatch(2);
+        emitters.add(new RecordingEmitter(delivered));
+        broadcaster.subscribe(null);
+
+        broadcaster.publish(new OrderStatusEvent(OrderStatusEvent.CREATED, "o1", "PENDING", "alice"));
+        assertTrue(stalledSends.await(5, TimeUnit.SECONDS));
+        broadcaster.publish(new OrderStatusEvent(OrderStatusEvent.UPDATED, "o1", "PAID", "alice"));
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+
+        Thread.sleep(5);
+        broadcaster.heartbeat();
+        assertEquals(1, broadcaster.subscriberCount());
+    }
+
+    private class StallingEmitter extends SseEmitter {
+        private final CountDownLatch sending;
+
+        private StallingEmitter(CountDownLatch sending) {
+            this.sending = sending;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                unstall.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch delivered;
+
+        private RecordingEmitter(CountDownLatch delivered) {
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            delivered.countDown();
+        }
+    }
+}
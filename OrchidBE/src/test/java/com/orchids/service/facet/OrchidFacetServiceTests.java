@@ -0,0 +1,93 @@
+package com.orchids.service.facet;
+
+import com.orchids.dto.OrchidFacetResponse;
+import com.orchids.dto.OrchidResponse;
+import com.orchids.service.OrchidChangedEvent;
+import com.orchids.service.OrchidService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class OrchidFacetServiceTests {
+
+    private final OrchidService orchidService = mock(OrchidService.class);
+
+    @Test
+    void filtersAndCountsEachFacetWithTheOtherFiltersApplied() {
+        OrchidFacetService facets = build(new BigDecimal[] { new BigDecimal("50"), new BigDecimal("100") },
+                orchid("a", true, "c1", "20"),
+                orchid("b", true, "c2", "75"),
+                orchid("c", false, "c1", "75"),
+                orchid("d", true, "c1", "150"));
+
+        OrchidFacetResponse response = facets.filter(List.of(true), List.of("c1"), List.of(), 10);
+
+        assertEquals(2, response.getTotal());
+        assertEquals(List.of("a", "d"), response.getItems().stream().map(OrchidResponse::getOrchidId).toList());
+        assertEquals(Map.of("true", 2, "false", 1), response.getFacets().get(OrchidFacetService.NATURAL));
+        assertEquals(Map.of("c1", 2, "c2", 1), response.getFacets().get(OrchidFacetService.CATEGORY));
+        assertEquals(Map.of("0-50", 1, "50-100", 0, "100+", 1), response.getFacets().get(OrchidFacetService.PRICE));
+    }
+
+    @Test
+    void changedOrchidsMoveBetweenBuckets() {
+        OrchidFacetService facets = build(new BigDecimal[] { new BigDecimal("50") },
+                orchid("a", true, "c1", "20"),
+                orchid("b", true, "c1", "20"));
+
+        facets.onOrchidChanged(new OrchidChangedEvent("a", orchid("a", false, "c2", "80")));
+        facets.onOrchidChanged(new OrchidChangedEvent("b", null));
+
+        OrchidFacetResponse response = facets.filter(List.of(), List.of(), List.of("50+"), 10);
+        assertEquals(1, response.getTotal());
+        assertEquals("a", response.getItems().get(0).getOrchidId());
+        assertEquals(Map.of("0-50", 0, "50+", 1), response.getFacets().get(OrchidFacetService.PRICE));
+        assertEquals(Map.of("c2", 1), response.getFacets().get(OrchidFacetService.CATEGORY));
+    }
+
+    @Test
+    void emptyPriceBoundsPutEveryOrchidInOneBucket() {
+        OrchidFacetService facets = build(new BigDecimal[0],
+                orchid("a", true, "c1", "20"),
+                orchid("b", false, "c1", "900"));
+
+        OrchidFacetResponse response = facets.filter(List.of(), List.of(), List.of("all"), 10);
+
+        assertEquals(2, response.getTotal());
+        assertEquals(Map.of("all", 2), response.getFacets().get(OrchidFacetService.PRICE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private OrchidFacetService build(BigDecimal[] priceBounds, OrchidResponse... catalog) {
+        doAnswer(invocation -> {
+            Consumer<OrchidResponse> consumer = invocation.getArgument(0);
+            for (OrchidResponse orchid : catalog) {
+                consumer.accept(orchid);
+            }
+            return null;
+        }).when(orchidService).streamActiveOrchids(any(Consumer.class));
+        OrchidFacetService facets = new OrchidFacetService(orchidService);
+        ReflectionTestUtils.setField(facets, "priceBounds", priceBounds);
+        facets.buildFacets();
+        return facets;
+    }
+
+    private OrchidResponse orchid(String orchidId, boolean natural, String categoryId, String price) {
+        OrchidResponse orchid = new OrchidResponse();
+        orchid.setOrchidId(orchidId);
+        orchid.setOrchidName("Orchid " + orchidId);
+        orchid.setIsNatural(natural);
+        orchid.setCategoryId(categoryId);
+        orchid.setPrice(new BigDecimal(price));
+        return orchid;
+    }
+}
@@ -0,0 +1,75 @@
+package com.orchids.service.idempotency;
+
+import com.orchids.config.IdempotencyProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryIdempotencyStoreTests {
+    private final IdempotencyStore store = new InMemoryIdempotencyStore(new IdempotencyProperties());
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstRunAndReplayIt() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<StoredResponse> first = CompletableFuture.supplyAsync(() -> store.execute("k", "a", () -> {
+            running.countDown();
+            await(release);
+            return created();
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<StoredResponse> duplicate = CompletableFuture.supplyAsync(
+                () -> store.execute("k", "a", this::created));
+        // Gives the duplicate time to find the first run still in flight
+        Thread.sleep(100);
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+        StoredResponse replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertTrue(replayed.replayed());
+        assertEquals("{\"orderId\":\"o1\"}", replayed.body());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void keyReusedForADifferentRequestIsRejected() {
+        store.execute("k", "a", this::created);
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> store.execute("k", "b", this::created));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failedAttemptFreesTheKey() {
+        assertThrows(IllegalStateException.class, () -> store.execute("k", "a", () -> {
+            throw new IllegalStateException("Mongo down");
+        }));
+        assertEquals(400, store.execute("k", "a", () -> new StoredResponse(400, "{}")).status());
+
+        StoredResponse retried = store.execute("k", "a", this::created);
+        assertEquals(201, retried.status());
+        assertFalse(retried.replayed());
+    }
+
+    private StoredResponse created() {
+        runs.incrementAndGet();
+        return new StoredResponse(201, "{\"orderId\":\"o1\"}");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.orchids.service.idempotency;
+
+import com.orchids.config.IdempotencyProperties;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// Same contract as the in-memory store, against a MongoTemplate backed by a map of idempotency_keys documents
+class MongoIdempotencyStoreTests {
+    private final Map<String, Document> collection = new ConcurrentHashMap<>();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final IdempotencyStore store = new MongoIdempotencyStore(mongoTemplate, new IdempotencyProperties());
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            Document document = invocation.getArgument(0);
+            if (collection.putIfAbsent(document.getString("_id"), new Document(document)) != null) {
+                throw new DuplicateKeyException("E11000 duplicate key");
+            }
+            return document;
+        }).when(mongoTemplate).insert(any(Document.class), anyString());
+        doAnswer(invocation -> {
+            Document document = collection.get((String) invocation.getArgument(0));
+            return document != null ? new Document(document) : null;
+        }).when(mongoTemplate).findById(anyString(), eq(Document.class), anyString());
+        doAnswer(invocation -> {
+            Document query = invocation.<Query>getArgument(0).getQueryObject();
+            Document set = invocation.<Update>getArgument(1).getUpdateObject().get("$set", Document.class);
+            collection.computeIfPresent(query.getString("_id"), (key, document) -> new Document(document).append(
+                    "status", set.get("status")).append("responseStatus", set.get("responseStatus"))
+                    .append("body", set.get("body")));
+            return null;
+        }).when(mongoTemplate).updateFirst(any(Query.class), any(Update.class), anyString());
+        doAnswer(invocation -> {
+            Document query = invocation.<Query>getArgument(0).getQueryObject();
+            collection.computeIfPresent(query.getString("_id"), (key, document) ->
+                    query.entrySet().stream().allMatch(field -> field.getValue().equals(document.get(field.getKey())))
+                            ? null : document);
+            return null;
+        }).when(mongoTemplate).remove(any(Query.class), anyString());
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstRunAndReplayIt() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<StoredResponse> first = CompletableFuture.supplyAsync(() -> store.execute("k", "a", () -> {
+            running.countDown();
+            await(release);
+            return created();
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<StoredResponse> duplicate = CompletableFuture.supplyAsync(
+                () -> store.execute("k", "a", this::created));
+        // Gives the duplicate time to find the claim still IN_PROGRESS and start polling
+        Thread.sleep(100);
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+        StoredResponse replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertTrue(replayed.replayed());
+        assertEquals(201, replayed.status());
+        assertEquals("{\"orderId\":\"o1\"}", replayed.body());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void keyReusedForADifferentRequestIsRejected() {
+        store.execute("k", "a", this::created);
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> store.execute("k", "b", this::created));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failedAttemptFreesTheKey() {
+        assertThrows(IllegalStateException.class, () -> store.execute("k", "a", () -> {
+            throw new IllegalStateException("Mongo down");
+        }));
+        assertEquals(400, store.execute("k", "a", () -> new StoredResponse(400, "{}")).status());
+
+        StoredResponse retried = store.execute("k", "a", this::created);
+        assertEquals(201, retried.status());
+        assertFalse(retried.replayed());
+        assertEquals("COMPLETED", collection.get("k").getString("status"));
+    }
+
+    private StoredResponse created() {
+        runs.incrementAndGet();
+        return new StoredResponse(201, "{\"orderId\":\"o1\"}");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.orchids.service.intake;
+
+import com.orchids.config.OrderIntakeProperties;
+import com.orchids.dto.OrderItemRequest;
+import com.orchids.pojo.Order;
+import com.orchids.repository.OrderRepository;
+import com.orchids.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIntakeServiceTests {
+    private final OrderService orderService = mock(OrderService.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class, RETURNS_SELF);
+    private final OrderIntakeService intakeService = new OrderIntakeService(orderService, mock(OrderRepository.class),
+            mongoTemplate, new OrderIntakeProperties());
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class)).thenReturn(bulk);
+        intakeService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        intakeService.stop();
+    }
+
+    @Test
+    void storedOrdersStayCreatedWhenPostInsertStepsFail() throws Exception {
+        Order first = order("o1");
+        Order second = order("o2");
+        when(orderService.prepareOrder(any())).thenReturn(first, second);
+        doThrow(new DataAccessResourceFailureException("Mongo down"))
+                .when(orderService).afterOrdersInserted(List.of(first));
+
+        intakeService.submit(new OrderItemRequest());
+        intakeService.submit(new OrderItemRequest());
+
+        assertEquals(OrderIntakeService.CREATED, status("o1"));
+        assertEquals(OrderIntakeService.CREATED, status("o2"));
+        // The second order's side effects still ran, and no stored order gave its stock back
+        verify(orderService).afterOrdersInserted(List.of(second));
+        verify(orderService, never()).discardOrders(any());
+    }
+
+    @Test
+    void failedInsertMarksTheBatchFailed() throws Exception {
+        Order order = order("o1");
+        when(orderService.prepareOrder(any())).thenReturn(order);
+        when(bulk.execute()).thenThrow(new DataAccessResourceFailureException("Mongo down"));
+        // The writer reuses its batch list, so the released orders are copied when they are discarded
+        List<String> released = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            orders.forEach(discarded -> released.add(discarded.getOrderId()));
+            return null;
+        }).when(orderService).discardOrders(any());
+
+        intakeService.submit(new OrderItemRequest());
+
+        assertEquals(OrderIntakeService.FAILED, status("o1"));
+        assertEquals(List.of("o1"), released);
+    }
+
+    private String status(String orderId) throws Exception {
+        return intakeService.status(orderId, null, Duration.ofSeconds(5)).orElseThrow().get().getStatus();
+    }
+
+    private Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        return order;
+    }
+}
@@ -0,0 +1,117 @@
+package com.orchids.service.pricing;
+
+import com.orchids.dto.OrchidResponse;
+import com.orchids.pojo.Orchid;
+import com.orchids.repository.OrchidRepository;
+import com.orchids.service.OrchidChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceTableTests {
+
+    private final OrchidRepository orchidRepository = mock(OrchidRepository.class);
+    private final PriceTable priceTable = new PriceTable(orchidRepository);
+
+    @Test
+    void pricesWithMoreThanTwoDecimalsRoundHalfUpToCents() {
+        assertEquals(1235, PriceTable.toMinorUnits(new BigDecimal("12.345")));
+        assertEquals(1234, PriceTable.toMinorUnits(new BigDecimal("12.3449")));
+        assertEquals(1, PriceTable.toMinorUnits(new BigDecimal("0.005")));
+        assertEquals(200, PriceTable.toMinorUnits(new BigDecimal("1.999")));
+        assertEquals(1500, PriceTable.toMinorUnits(new BigDecimal("15")));
+        assertEquals(new BigDecimal("12.35"), PriceTable.fromMinorUnits(1235));
+    }
+
+    @Test
+    void quoteMultipliesAndSumsInCents() {
+        price("a", "0.10");
+        price("b", "19.995");
+
+        PriceTable.Quote quote = priceTable.quote(lines("a", 3, "b", 2));
+
+        // 3 x 0.10 is exactly 0.30 in cents, where doubles would give 0.30000000000000004
+        assertEquals(Map.of("a", 10L, "b", 2000L), quote.unitPrices());
+        assertEquals(4030, quote.total());
+        assertEquals(new BigDecimal("40.30"), PriceTable.fromMinorUnits(quote.total()));
+    }
+
+    @Test
+    void totalsThatOverflowALongAreRejected() {
+        String halfOfMax = PriceTable.fromMinorUnits(Long.MAX_VALUE / 2 + 1).toPlainString();
+        price("expensive", halfOfMax);
+        price("alsoExpensive", halfOfMax);
+
+        IllegalArgumentException multiply = assertThrows(IllegalArgumentException.class,
+                () -> priceTable.quote(lines("expensive", 2)));
+        assertEquals("Order total is too large", multiply.getMessage());
+        IllegalArgumentException add = assertThrows(IllegalArgumentException.class,
+                () -> priceTable.quote(lines("expensive", 1, "alsoExpensive", 1)));
+        assertEquals("Order total is too large", add.getMessage());
+        assertEquals(Long.MAX_VALUE / 2 + 1, priceTable.quote(lines("expensive", 1)).total());
+    }
+
+    @Test
+    void missingOrchidsAreLoadedOnceAndOnlyWhenActive() {
+        when(orchidRepository.findAllById(any())).thenReturn(List.of(
+                orchid("late", "ACTIVE", "7.50"),
+                orchid("gone", "DELETED", "3.00")));
+
+        assertEquals(750, priceTable.quote(lines("late", 1)).total());
+        assertEquals(1500, priceTable.quote(lines("late", 2)).total());
+        verify(orchidRepository, times(1)).findAllById(any());
+
+        IllegalArgumentException gone = assertThrows(IllegalArgumentException.class,
+                () -> priceTable.quote(lines("gone", 1)));
+        assertEquals("Orchid gone is not available", gone.getMessage());
+        // Not for sale is not cached, the next quote asks again
+        assertThrows(IllegalArgumentException.class, () -> priceTable.quote(lines("gone", 1)));
+        verify(orchidRepository, times(3)).findAllById(any());
+    }
+
+    @Test
+    void changeEventsUpdateAndRemovePrices() {
+        price("a", "5.00");
+        assertEquals(500, priceTable.quote(lines("a", 1)).total());
+
+        price("a", "6.25");
+        assertEquals(625, priceTable.quote(lines("a", 1)).total());
+
+        priceTable.onOrchidChanged(new OrchidChangedEvent("a", null));
+        assertThrows(IllegalArgumentException.class, () -> priceTable.quote(lines("a", 1)));
+    }
+
+    private void price(String orchidId, String price) {
+        OrchidResponse orchid = new OrchidResponse();
+        orchid.setOrchidId(orchidId);
+        orchid.setPrice(new BigDecimal(price));
+        priceTable.onOrchidChanged(new OrchidChangedEvent(orchidId, orchid));
+    }
+
+    private Orchid orchid(String orchidId, String status, String price) {
+        Orchid orchid = new Orchid();
+        orchid.setOrchidId(orchidId);
+        orchid.setStatus(status);
+        orchid.setPrice(new BigDecimal(price));
+        return orchid;
+    }
+
+    private Map<String, Integer> lines(Object... idsAndQuantities) {
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        for (int i = 0; i < idsAndQuantities.length; i += 2) {
+            lines.put((String) idsAndQuantities[i], (Integer) idsAndQuantities[i + 1]);
+        }
+        return lines;
+    }
+}
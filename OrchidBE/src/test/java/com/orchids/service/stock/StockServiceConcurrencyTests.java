@@ -0,0 +1,156 @@
+package com.orchids.service.stock;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.orchids.config.StockProperties;
+import com.orchids.pojo.OrchidStock;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Many threads buying the same orchid must never sell more than was stocked
+class StockServiceConcurrencyTests {
+
+    private static final int STOCK = 1_000;
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final String orchidId = new ObjectId().toHexString();
+    private StockService stockService;
+
+    @BeforeEach
+    void setUp() {
+        StockProperties properties = new StockProperties();
+        properties.setStripes(8);
+        stockService = new StockService(mongoTemplate, properties);
+        when(mongoTemplate.findById(orchidId, OrchidStock.class)).thenReturn(new OrchidStock(orchidId, STOCK));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrchidStock.class)).thenReturn(bulk);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getMatchedCount()).thenReturn(1);
+        when(bulk.execute()).thenReturn(result);
+    }
+
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(() -> {
+            String orderId = new ObjectId().toHexString();
+            try {
+                stockService.reserve(orderId, Map.of(orchidId, 2));
+                stockService.commit(orderId);
+                sold.addAndGet(2);
+            } catch (OutOfStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(STOCK, sold.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - STOCK / 2, rejected.get());
+        assertEquals(0L, stockService.getStock(orchidId).getAvailable());
+        assertEquals(0L, stockService.getStock(orchidId).getReserved());
+        assertFlushed(STOCK);
+    }
+
+    @Test
+    void releasedReservationsGoBackOnSale() throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger committed = new AtomicInteger();
+        // Every other successful reservation is abandoned, the rest are sold
+        runConcurrently(() -> {
+            String orderId = new ObjectId().toHexString();
+            try {
+                stockService.reserve(orderId, Map.of(orchidId, 1));
+            } catch (OutOfStockException e) {
+                return;
+            }
+            if (reserved.incrementAndGet() % 2 == 0) {
+                stockService.release(orderId);
+            } else {
+                stockService.commit(orderId);
+                committed.incrementAndGet();
+            }
+        });
+
+        long available = stockService.getStock(orchidId).getAvailable();
+        assertTrue(available >= 0);
+        assertEquals(STOCK, available + committed.get());
+        assertEquals(0L, stockService.getStock(orchidId).getReserved());
+        assertFlushed(committed.get());
+    }
+
+    @Test
+    void failedLineReleasesTheOthers() {
+        String otherId = new ObjectId().toHexString();
+        when(mongoTemplate.findById(otherId, OrchidStock.class)).thenReturn(new OrchidStock(otherId, 1));
+
+        assertThrows(OutOfStockException.class,
+                () -> stockService.reserve("order", Map.of(orchidId, 5, otherId, 2)));
+
+        assertEquals((long) STOCK, stockService.getStock(orchidId).getAvailable());
+        assertEquals(1L, stockService.getStock(otherId).getAvailable());
+    }
+
+    private void runConcurrently(Runnable attempt) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tasks.add(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    attempt.run();
+                }
+            });
+        }
+        tasks.forEach(executor::execute);
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    }
+
+    // One conditional decrement carries everything sold since the last flush
+    private void assertFlushed(long units) {
+        stockService.flush();
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(units > 0 ? 1 : 0)).updateOne(any(Query.class), update.capture());
+        if (units > 0) {
+            assertEquals(-units, ((Number) update.getValue().getUpdateObject().get("$inc", Document.class)
+                    .get("available")).longValue());
+        }
+        stockService.flush();
+        verify(bulk, times(units > 0 ? 1 : 0)).execute();
+        verify(mongoTemplate, times(1)).findById(eq(orchidId), eq(OrchidStock.class));
+    }
+}
@@ -0,0 +1,55 @@
+package com.orchids.service.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Buyers whose partial takes collide must not all be turned away while enough stock remains
+class StripedCounterTests {
+
+    private static final int ROUNDS = 2_000;
+    private static final int BUYERS = 16;
+    private static final int QUANTITY = 3;
+
+    @Test
+    void everyUnitIsSoldWhenBuyersCollide() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            StripedCounter counter = new StripedCounter(BUYERS, 0);
+            // One unit at a time, so every purchase has to gather units from several slots
+            int stock = BUYERS / 2 * QUANTITY;
+            for (int i = 0; i < stock; i++) {
+                counter.add(1);
+            }
+            AtomicInteger sold = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> buyers = new ArrayList<>();
+            for (int i = 0; i < BUYERS; i++) {
+                Thread buyer = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (counter.tryAcquire(QUANTITY)) {
+                        sold.incrementAndGet();
+                    }
+                });
+                buyer.start();
+                buyers.add(buyer);
+            }
+            start.countDown();
+            for (Thread buyer : buyers) {
+                buyer.join();
+            }
+
+            assertEquals(BUYERS / 2, sold.get(), "round " + round);
+            assertEquals(0, counter.sum(), "round " + round);
+        }
+    }
+}
@@ -7,15 +7,20 @@ import AdminLayout from "./AdminLayout";
 
 export default function AdminOrders() {
   const [orders, setOrders] = useState([]);
+  const [next, setNext] = useState(null);
   const [selectedOrder, setSelectedOrder] = useState(null);
   const [showModal, setShowModal] = useState(false);
   const [editStatus, setEditStatus] = useState("");
   const baseUrl = "http://localhost:8080/api/orders";
 
-  const fetchOrders = () => {
+  // The list comes a page at a time, the cursor fetches the page after the ones already shown
+  const fetchOrders = (cursor) => {
     axios
-      .get(baseUrl, { headers: getAuthHeaders() })
-      .then((res) => setOrders(res.data));
+      .get(baseUrl, { headers: getAuthHeaders(), params: { cursor } })
+      .then((res) => {
+        setOrders((shown) => (cursor ? [...shown, ...res.data.items] : res.data.items));
+        setNext(res.data.next);
+      });
   };
 
   useEffect(() => {
@@ -101,6 +106,15 @@ export default function AdminOrders() {
               ))}
             </tbody>
           </Table>
+          {next && (
+            <Button
+              variant="outline-primary"
+              onClick={() => fetchOrders(next)}
+              className="shadow-sm"
+            >
+              Load more
+            </Button>
+          )}
         </Card.Body>
       </Card>
       <Modal